@@ -2,6 +2,11 @@ BEGIN;
 
 SET session_replication_role = 'replica';
 
+DROP TABLE IF EXISTS sales_rollup_dirty CASCADE;
+DROP TABLE IF EXISTS product_sales_rollup CASCADE;
+DROP TABLE IF EXISTS sales_rollup CASCADE;
+DROP TABLE IF EXISTS email_outbox CASCADE;
+DROP TABLE IF EXISTS idempotency_key CASCADE;
 DROP TABLE IF EXISTS password_reset_tokens CASCADE;
 DROP TABLE IF EXISTS orders_product CASCADE;
 DROP TABLE IF EXISTS payment CASCADE;
@@ -12,8 +17,37 @@ DROP TABLE IF EXISTS restaurant CASCADE;
 DROP TABLE IF EXISTS manager CASCADE;
 DROP TABLE IF EXISTS users CASCADE;
 
+DROP SEQUENCE IF EXISTS users_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS manager_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS restaurant_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS menu_category_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS product_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS orders_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS orders_product_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS payment_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS password_reset_tokens_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS email_outbox_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS idempotency_key_id_seq CASCADE;
+DROP SEQUENCE IF EXISTS sales_rollup_dirty_id_seq CASCADE;
+
+-- Sequências com INCREMENT BY igual ao allocationSize das entidades (otimizador pooled do Hibernate),
+-- permitindo reservar blocos de IDs e agrupar INSERTs em lotes JDBC.
+CREATE SEQUENCE IF NOT EXISTS users_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS manager_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS restaurant_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS menu_category_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS product_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS orders_product_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS payment_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS password_reset_tokens_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS email_outbox_id_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS idempotency_key_id_seq INCREMENT BY 50;
+-- Usada só por SQL direto (SalesRollupService), sem entidade
+CREATE SEQUENCE IF NOT EXISTS sales_rollup_dirty_id_seq;
+
 CREATE TABLE IF NOT EXISTS users (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('users_id_seq'),
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) UNIQUE NOT NULL,
     password VARCHAR(255) NOT NULL,
@@ -25,7 +59,7 @@ CREATE TABLE IF NOT EXISTS users (
 );
 
 CREATE TABLE IF NOT EXISTS manager (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('manager_id_seq'),
     name VARCHAR(255) NOT NULL,
     email VARCHAR(255) UNIQUE NOT NULL,
     password VARCHAR(255) NOT NULL,
@@ -34,7 +68,7 @@ CREATE TABLE IF NOT EXISTS manager (
 );
 
 CREATE TABLE IF NOT EXISTS restaurant (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('restaurant_id_seq'),
     name TEXT NOT NULL,
     slug TEXT NOT NULL UNIQUE,
     description TEXT NOT NULL,
@@ -46,7 +80,7 @@ CREATE TABLE IF NOT EXISTS restaurant (
 );
 
 CREATE TABLE IF NOT EXISTS menu_category (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('menu_category_id_seq'),
     name TEXT NOT NULL,
     restaurant_id INTEGER NOT NULL,
     created_at TIMESTAMP(3) NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -54,7 +88,7 @@ CREATE TABLE IF NOT EXISTS menu_category (
 );
 
 CREATE TABLE IF NOT EXISTS product (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('product_id_seq'),
     name TEXT NOT NULL,
     description TEXT NOT NULL,
     price DOUBLE PRECISION NOT NULL,
@@ -68,7 +102,7 @@ CREATE TABLE IF NOT EXISTS product (
 );
 
 CREATE TABLE IF NOT EXISTS orders (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('orders_id_seq'),
     name TEXT,
     description TEXT,
     price DOUBLE PRECISION,
@@ -79,11 +113,12 @@ CREATE TABLE IF NOT EXISTS orders (
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL,
     payment_id INTEGER,
-    user_id INTEGER NOT NULL
+    user_id INTEGER NOT NULL,
+    version BIGINT NOT NULL DEFAULT 0
 );
 
 CREATE TABLE IF NOT EXISTS orders_product (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('orders_product_id_seq'),
     name TEXT,
     product_id INTEGER NOT NULL,
     order_id INTEGER NOT NULL,
@@ -95,7 +130,7 @@ CREATE TABLE IF NOT EXISTS orders_product (
 );
 
 CREATE TABLE IF NOT EXISTS payment (
-    id SERIAL PRIMARY KEY,
+    id INTEGER PRIMARY KEY DEFAULT nextval('payment_id_seq'),
     method VARCHAR(100) NOT NULL,
     amount DOUBLE PRECISION NOT NULL,
     status VARCHAR(50) NOT NULL,
@@ -105,12 +140,110 @@ CREATE TABLE IF NOT EXISTS payment (
 );
 
 CREATE TABLE IF NOT EXISTS password_reset_tokens (
-    id BIGSERIAL PRIMARY KEY,
+    id BIGINT PRIMARY KEY DEFAULT nextval('password_reset_tokens_id_seq'),
     token VARCHAR(255) NOT NULL UNIQUE,
     user_id BIGINT NOT NULL,
     expiry_date TIMESTAMP WITHOUT TIME ZONE NOT NULL
 );
 
+CREATE TABLE IF NOT EXISTS email_outbox (
+    id BIGINT PRIMARY KEY DEFAULT nextval('email_outbox_id_seq'),
+    recipient VARCHAR(255) NOT NULL,
+    subject VARCHAR(255) NOT NULL,
+    body TEXT NOT NULL,
+    status VARCHAR(20) NOT NULL DEFAULT 'PENDING',
+    attempts INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    sent_at TIMESTAMP
+);
+
+-- Apenas linhas ainda a enviar entram no índice usado pelo EmailDispatcher
+CREATE INDEX IF NOT EXISTS idx_email_outbox_due ON email_outbox (next_attempt_at)
+    WHERE status IN ('PENDING', 'SENDING');
+
+-- Respostas de POSTs com Idempotency-Key, reaproveitadas em reenvios do totem
+CREATE TABLE IF NOT EXISTS idempotency_key (
+    id BIGINT PRIMARY KEY DEFAULT nextval('idempotency_key_id_seq'),
+    scope VARCHAR(50) NOT NULL,
+    idempotency_key VARCHAR(255) NOT NULL,
+    request_hash VARCHAR(64) NOT NULL,
+    status_code INTEGER NOT NULL,
+    response_body TEXT,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT uq_idempotency_key UNIQUE (scope, idempotency_key)
+);
+
+CREATE INDEX IF NOT EXISTS idx_idempotency_key_created ON idempotency_key (created_at);
+
+-- Listagem paginada de pedidos: chave (created_at, id) precedida de cada filtro de igualdade
+CREATE INDEX IF NOT EXISTS idx_orders_created_id ON orders (created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_created_id ON orders (restaurant_id, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_restaurant_status_created_id ON orders (restaurant_id, status, created_at DESC, id DESC);
+CREATE INDEX IF NOT EXISTS idx_orders_user_created_id ON orders (user_id, created_at DESC, id DESC);
+
+-- Resumo do painel: pagamentos do dia e pedidos em aberto (poucos, daí o índice parcial)
+CREATE INDEX IF NOT EXISTS idx_payment_date ON payment (payment_date);
+CREATE INDEX IF NOT EXISTS idx_orders_open_status ON orders (status, restaurant_id)
+    WHERE status IN ('PENDING', 'CONFIRMED', 'PREPARING', 'READY');
+
+-- Recálculo das vendas de um restaurante em uma hora: pagamentos e itens de cada pedido
+CREATE INDEX IF NOT EXISTS idx_payment_order ON payment (order_id);
+CREATE INDEX IF NOT EXISTS idx_orders_product_order ON orders_product (order_id);
+
+-- Vendas consolidadas por hora e por dia (period = 'HOUR' | 'DAY'), mantidas pelo SalesRollupService.
+-- Só entram pedidos não cancelados com pagamento COMPLETED; o ticket médio é revenue / order_count.
+CREATE TABLE IF NOT EXISTS sales_rollup (
+    period VARCHAR(4) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    restaurant_id INTEGER NOT NULL,
+    consumption_method VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(100) NOT NULL,
+    order_count INTEGER NOT NULL,
+    units INTEGER NOT NULL,
+    revenue DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (period, restaurant_id, bucket_start, consumption_method, payment_method)
+);
+
+CREATE INDEX IF NOT EXISTS idx_sales_rollup_bucket ON sales_rollup (period, bucket_start);
+
+CREATE TABLE IF NOT EXISTS product_sales_rollup (
+    period VARCHAR(4) NOT NULL,
+    bucket_start TIMESTAMP NOT NULL,
+    restaurant_id INTEGER NOT NULL,
+    product_id INTEGER NOT NULL,
+    consumption_method VARCHAR(20) NOT NULL,
+    payment_method VARCHAR(100) NOT NULL,
+    order_count INTEGER NOT NULL,
+    units INTEGER NOT NULL,
+    revenue DOUBLE PRECISION NOT NULL,
+    PRIMARY KEY (period, restaurant_id, bucket_start, product_id, consumption_method, payment_method)
+);
+
+CREATE INDEX IF NOT EXISTS idx_product_sales_rollup_bucket ON product_sales_rollup (period, bucket_start);
+
+-- Horas de cada restaurante a recalcular, gravadas na mesma transação do pedido/pagamento.
+-- Só INSERT, sem chave única, para que pedidos simultâneos da mesma hora não esperem um pelo outro.
+CREATE TABLE IF NOT EXISTS sales_rollup_dirty (
+    id BIGINT PRIMARY KEY DEFAULT nextval('sales_rollup_dirty_id_seq'),
+    restaurant_id INTEGER NOT NULL,
+    bucket_start TIMESTAMP NOT NULL
+);
+
+ALTER SEQUENCE users_id_seq OWNED BY users.id;
+ALTER SEQUENCE manager_id_seq OWNED BY manager.id;
+ALTER SEQUENCE restaurant_id_seq OWNED BY restaurant.id;
+ALTER SEQUENCE menu_category_id_seq OWNED BY menu_category.id;
+ALTER SEQUENCE product_id_seq OWNED BY product.id;
+ALTER SEQUENCE orders_id_seq OWNED BY orders.id;
+ALTER SEQUENCE orders_product_id_seq OWNED BY orders_product.id;
+ALTER SEQUENCE payment_id_seq OWNED BY payment.id;
+ALTER SEQUENCE password_reset_tokens_id_seq OWNED BY password_reset_tokens.id;
+ALTER SEQUENCE email_outbox_id_seq OWNED BY email_outbox.id;
+ALTER SEQUENCE idempotency_key_id_seq OWNED BY idempotency_key.id;
+ALTER SEQUENCE sales_rollup_dirty_id_seq OWNED BY sales_rollup_dirty.id;
+
 ALTER TABLE restaurant ADD CONSTRAINT fk_restaurant_manager
     FOREIGN KEY (manager_id) REFERENCES manager(id) ON DELETE SET NULL;
 
@@ -163,28 +296,28 @@ SELECT setval('menu_category_id_seq', (SELECT COALESCE(MAX(id), 1) FROM menu_cat
 
 -- Produtos para o restaurante 1
 INSERT INTO product (
-  name, description, price, image_url, ingredients, amount, restaurant_id, menu_category_id, created_at, updated_at
+  id, name, description, price, image_url, ingredients, amount, restaurant_id, menu_category_id, created_at, updated_at
 ) VALUES
-('Café Expresso', 'Café puro e encorpado.', 4.50, 'cafe-expresso.jpg', ARRAY['Grãos de café'], 1, 1, 1, NOW(), NOW()),
-('Cappuccino Tradicional', 'Café com leite vaporizado e espuma de leite.', 8.00, 'cappuccino.jpg', ARRAY['Café', 'Leite'], 1, 1, 1, NOW(), NOW()),
-('Latte Macchiato', 'Leite quente com um toque de café e espuma.', 8.50, 'latte-macchiato.jpg', ARRAY['Leite', 'Café'], 1, 1, 1, NOW(), NOW()),
-('Mocha Gelado', 'Bebida gelada de café, chocolate e leite.', 9.50, 'mocha-gelado.jpg', ARRAY['Café', 'Chocolate', 'Leite', 'Gelo'], 1, 1, 1, NOW(), NOW()),
-('Chá de Camomila', 'Chá calmante de camomila.', 5.00, 'cha-camomila.jpg', ARRAY['Camomila', 'Água quente'], 1, 1, 1, NOW(), NOW()),
-('Torta de Limão', 'Fatia de torta de limão com merengue.', 7.00, 'torta-limao.jpg', ARRAY['Biscoito', 'Limão', 'Leite condensado', 'Merengue'], 1, 1, 2, NOW(), NOW()),
-('Cheesecake de Frutas Vermelhas', 'Cheesecake cremoso com calda de frutas vermelhas.', 9.00, 'cheesecake-frutas.jpg', ARRAY['Cream cheese', 'Biscoito', 'Frutas vermelhas'], 1, 1, 2, NOW(), NOW()),
-('Brownie com Sorvete', 'Brownie quente com uma bola de sorvete de creme.', 10.00, 'brownie-sorvete.jpg', ARRAY['Chocolate', 'Farinha', 'Sorvete de creme'], 1, 1, 2, NOW(), NOW()),
-('Muffin de Blueberry', 'Muffin fofinho com mirtilos frescos.', 5.50, 'muffin-blueberry.jpg', ARRAY['Farinha', 'Mirtilo', 'Ovos'], 1, 1, 2, NOW(), NOW()),
-('Cookie com Gotas de Chocolate', 'Cookie crocante com muitas gotas de chocolate.', 4.00, 'cookie-chocolate.jpg', ARRAY['Farinha', 'Chocolate', 'Manteiga'], 1, 1, 2, NOW(), NOW()),
-('Pão de Queijo Recheado', 'Pão de queijo com recheio cremoso de requeijão.', 6.00, 'pao-queijo-recheado.jpg', ARRAY['Polvilho', 'Queijo', 'Requeijão'], 1, 1, 3, NOW(), NOW()),
-('Mini Pizza de Queijo', 'Pequena pizza individual com queijo mussarela.', 7.00, 'mini-pizza.jpg', ARRAY['Massa de pizza', 'Molho de tomate', 'Queijo mussarela'], 1, 1, 3, NOW(), NOW()),
-('Cachorro Quente Gourmet', 'Salsicha especial com molho e batata palha.', 12.00, 'cachorro-quente.jpg', ARRAY['Pão', 'Salsicha', 'Molho', 'Batata palha'], 1, 1, 3, NOW(), NOW()),
-('Wrap de Frango com Salada', 'Wrap recheado com frango grelhado e mix de folhas.', 11.00, 'wrap-frango.jpg', ARRAY['Tortilla', 'Frango', 'Alface', 'Tomate'], 1, 1, 3, NOW(), NOW()),
-('Salada de Frutas Frescas', 'Mix de frutas da estação picadas.', 8.00, 'salada-frutas.jpg', ARRAY['Morango', 'Manga', 'Uva', 'Maçã'], 1, 1, 4, NOW(), NOW()),
-('Iogurte com Granola e Mel', 'Iogurte natural com granola crocante e mel.', 7.50, 'iogurte-granola.jpg', ARRAY['Iogurte natural', 'Granola', 'Mel'], 1, 1, 4, NOW(), NOW()),
-('Sopa de Legumes da Horta', 'Sopa caseira com legumes frescos.', 10.00, 'sopa-legumes.jpg', ARRAY['Cenoura', 'Batata', 'Abobrinha', 'Caldo de legumes'], 1, 1, 4, NOW(), NOW()),
-('Água de Coco Natural', 'Água de coco fresca e gelada.', 6.00, 'agua-coco.jpg', ARRAY['Água de coco'], 1, 1, 4, NOW(), NOW()),
-('Refrigerante Lata', 'Diversos sabores de refrigerante em lata.', 5.00, 'refrigerante-lata.jpg', ARRAY['Refrigerante'], 1, 1, 1, NOW(), NOW()),
-('Cerveja Artesanal', 'Seleção de cervejas artesanais locais.', 15.00, 'cerveja-artesanal.jpg', ARRAY['Cerveja'], 1, 1, 1, NOW(), NOW());
+(1, 'Café Expresso', 'Café puro e encorpado.', 4.50, 'cafe-expresso.jpg', ARRAY['Grãos de café'], 1, 1, 1, NOW(), NOW()),
+(2, 'Cappuccino Tradicional', 'Café com leite vaporizado e espuma de leite.', 8.00, 'cappuccino.jpg', ARRAY['Café', 'Leite'], 1, 1, 1, NOW(), NOW()),
+(3, 'Latte Macchiato', 'Leite quente com um toque de café e espuma.', 8.50, 'latte-macchiato.jpg', ARRAY['Leite', 'Café'], 1, 1, 1, NOW(), NOW()),
+(4, 'Mocha Gelado', 'Bebida gelada de café, chocolate e leite.', 9.50, 'mocha-gelado.jpg', ARRAY['Café', 'Chocolate', 'Leite', 'Gelo'], 1, 1, 1, NOW(), NOW()),
+(5, 'Chá de Camomila', 'Chá calmante de camomila.', 5.00, 'cha-camomila.jpg', ARRAY['Camomila', 'Água quente'], 1, 1, 1, NOW(), NOW()),
+(6, 'Torta de Limão', 'Fatia de torta de limão com merengue.', 7.00, 'torta-limao.jpg', ARRAY['Biscoito', 'Limão', 'Leite condensado', 'Merengue'], 1, 1, 2, NOW(), NOW()),
+(7, 'Cheesecake de Frutas Vermelhas', 'Cheesecake cremoso com calda de frutas vermelhas.', 9.00, 'cheesecake-frutas.jpg', ARRAY['Cream cheese', 'Biscoito', 'Frutas vermelhas'], 1, 1, 2, NOW(), NOW()),
+(8, 'Brownie com Sorvete', 'Brownie quente com uma bola de sorvete de creme.', 10.00, 'brownie-sorvete.jpg', ARRAY['Chocolate', 'Farinha', 'Sorvete de creme'], 1, 1, 2, NOW(), NOW()),
+(9, 'Muffin de Blueberry', 'Muffin fofinho com mirtilos frescos.', 5.50, 'muffin-blueberry.jpg', ARRAY['Farinha', 'Mirtilo', 'Ovos'], 1, 1, 2, NOW(), NOW()),
+(10, 'Cookie com Gotas de Chocolate', 'Cookie crocante com muitas gotas de chocolate.', 4.00, 'cookie-chocolate.jpg', ARRAY['Farinha', 'Chocolate', 'Manteiga'], 1, 1, 2, NOW(), NOW()),
+(11, 'Pão de Queijo Recheado', 'Pão de queijo com recheio cremoso de requeijão.', 6.00, 'pao-queijo-recheado.jpg', ARRAY['Polvilho', 'Queijo', 'Requeijão'], 1, 1, 3, NOW(), NOW()),
+(12, 'Mini Pizza de Queijo', 'Pequena pizza individual com queijo mussarela.', 7.00, 'mini-pizza.jpg', ARRAY['Massa de pizza', 'Molho de tomate', 'Queijo mussarela'], 1, 1, 3, NOW(), NOW()),
+(13, 'Cachorro Quente Gourmet', 'Salsicha especial com molho e batata palha.', 12.00, 'cachorro-quente.jpg', ARRAY['Pão', 'Salsicha', 'Molho', 'Batata palha'], 1, 1, 3, NOW(), NOW()),
+(14, 'Wrap de Frango com Salada', 'Wrap recheado com frango grelhado e mix de folhas.', 11.00, 'wrap-frango.jpg', ARRAY['Tortilla', 'Frango', 'Alface', 'Tomate'], 1, 1, 3, NOW(), NOW()),
+(15, 'Salada de Frutas Frescas', 'Mix de frutas da estação picadas.', 8.00, 'salada-frutas.jpg', ARRAY['Morango', 'Manga', 'Uva', 'Maçã'], 1, 1, 4, NOW(), NOW()),
+(16, 'Iogurte com Granola e Mel', 'Iogurte natural com granola crocante e mel.', 7.50, 'iogurte-granola.jpg', ARRAY['Iogurte natural', 'Granola', 'Mel'], 1, 1, 4, NOW(), NOW()),
+(17, 'Sopa de Legumes da Horta', 'Sopa caseira com legumes frescos.', 10.00, 'sopa-legumes.jpg', ARRAY['Cenoura', 'Batata', 'Abobrinha', 'Caldo de legumes'], 1, 1, 4, NOW(), NOW()),
+(18, 'Água de Coco Natural', 'Água de coco fresca e gelada.', 6.00, 'agua-coco.jpg', ARRAY['Água de coco'], 1, 1, 4, NOW(), NOW()),
+(19, 'Refrigerante Lata', 'Diversos sabores de refrigerante em lata.', 5.00, 'refrigerante-lata.jpg', ARRAY['Refrigerante'], 1, 1, 1, NOW(), NOW()),
+(20, 'Cerveja Artesanal', 'Seleção de cervejas artesanais locais.', 15.00, 'cerveja-artesanal.jpg', ARRAY['Cerveja'], 1, 1, 1, NOW(), NOW());
 
 SELECT setval('product_id_seq', (SELECT COALESCE(MAX(id), 1) FROM product), true);
 
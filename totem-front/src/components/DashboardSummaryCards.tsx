@@ -0,0 +1,91 @@
+import { useDashboardSummary } from '../hooks/useDashboardSummary';
+
+const STATUS_LABELS: Record<string, string> = {
+    PENDING: 'Pendentes',
+    CONFIRMED: 'Confirmados',
+    PREPARING: 'Em preparo',
+    READY: 'Prontos',
+};
+
+interface DashboardSummaryCardsProps {
+    restaurantId?: number;
+}
+
+// Resumo do painel vindo de /api/dashboard/summary, sem carregar as tabelas completas
+export default function DashboardSummaryCards({ restaurantId }: DashboardSummaryCardsProps) {
+    const { summary, loading, error, fetchSummary } = useDashboardSummary(restaurantId);
+
+    if (error) {
+        return <p className="text-red-600 text-center py-4 mb-10">{error}</p>;
+    }
+    if (!summary) {
+        return loading ? <p className="text-gray-600 text-center py-4 mb-10">Carregando resumo...</p> : null;
+    }
+
+    const cards = [
+        { label: 'Faturamento hoje', value: `R$ ${summary.revenueToday.toFixed(2)}` },
+        { label: 'Pedidos hoje', value: summary.ordersToday },
+        { label: 'Pagamentos hoje', value: summary.paymentsToday },
+        { label: 'Produtos', value: summary.products },
+        { label: 'Categorias', value: summary.menuCategories },
+        { label: 'Restaurantes', value: summary.restaurants },
+        { label: 'Usuários', value: summary.users },
+    ];
+
+    return (
+        <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div className="flex justify-between items-center mb-6">
+                <h3 className="text-3xl font-bold text-gray-800">Resumo</h3>
+                <button
+                    onClick={fetchSummary}
+                    disabled={loading}
+                    className="px-4 py-2 bg-orange-500 text-white font-semibold rounded-md shadow-md hover:bg-orange-600 transition duration-300 disabled:opacity-50"
+                >
+                    <i className="fas fa-sync-alt mr-2"></i> Atualizar
+                </button>
+            </div>
+
+            <div className="grid grid-cols-2 md:grid-cols-4 lg:grid-cols-7 gap-4 mb-6">
+                {cards.map(card => (
+                    <div key={card.label} className="bg-white rounded-lg border border-gray-200 p-4">
+                        <p className="text-sm text-gray-600">{card.label}</p>
+                        <p className="text-2xl font-bold text-gray-900">{card.value}</p>
+                    </div>
+                ))}
+            </div>
+
+            <div className="grid grid-cols-1 md:grid-cols-2 gap-6">
+                <div>
+                    <h4 className="text-xl font-semibold text-gray-800 mb-3">Pedidos em aberto</h4>
+                    <div className="grid grid-cols-2 gap-3">
+                        {Object.entries(summary.openOrdersByStatus).map(([status, count]) => (
+                            <div key={status} className="bg-white rounded-lg border border-gray-200 p-3 flex justify-between">
+                                <span className="text-gray-700">{STATUS_LABELS[status] ?? status}</span>
+                                <span className="font-bold text-orange-600">{count}</span>
+                            </div>
+                        ))}
+                    </div>
+                </div>
+                <div>
+                    <h4 className="text-xl font-semibold text-gray-800 mb-3">Pedidos recentes</h4>
+                    {summary.recentOrders.length > 0 ? (
+                        <ul className="bg-white rounded-lg border border-gray-200 divide-y divide-gray-200">
+                            {summary.recentOrders.map(order => (
+                                <li key={order.id} className="px-4 py-2 flex justify-between text-sm">
+                                    <span className="text-gray-800">#{order.id} {order.name}</span>
+                                    <span className="text-gray-600">{STATUS_LABELS[order.status] ?? order.status}</span>
+                                    <span className="text-gray-800">R$ {order.total.toFixed(2)}</span>
+                                    <span className="text-gray-500">
+                                        {new Date(order.createdAt).toLocaleString('pt-BR', { dateStyle: 'short', timeStyle: 'short' })}
+                                    </span>
+                                </li>
+                            ))}
+                        </ul>
+                    ) : (
+                        <p className="text-gray-600">Nenhum pedido ainda.</p>
+                    )}
+                </div>
+            </div>
+        </div>
+    );
+}
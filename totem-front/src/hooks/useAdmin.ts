@@ -1,5 +1,5 @@
 // src/hooks/useAdmin.ts
-import { useState, useEffect, useCallback } from 'react';
+import { useState, useCallback, useRef } from 'react';
 import {
     Product, Order, User, Payment, OrderItem, Restaurant, MenuCategory
 } from '../service/interfaces'; 
@@ -7,7 +7,7 @@ import {
     getAllProducts, saveProduct, updateProduct, deleteProduct
 } from '../service/product';
 import {
-    getAllOrders, updateOrder, deleteOrder
+    getOrdersPage, updateOrder, deleteOrder
 } from '../service/order';
 import {
     getAllUsers, updateUser, deleteUser
@@ -50,6 +50,7 @@ interface AdminDataState {
     orderItems: OrderItem[];
     restaurants: Restaurant[];
     menuCategories: MenuCategory[];
+    ordersNextCursor: string | null;
 }
 
 interface AdminLoadingErrorState {
@@ -69,8 +70,11 @@ export const useAdmin = () => {
         payments: [],
         orderItems: [],
         restaurants: [],
-        menuCategories: []
+        menuCategories: [],
+        ordersNextCursor: null
     });
+    // Filtro de status aplicado no servidor; recarregamentos após edição mantêm o mesmo filtro
+    const orderStatusFilter = useRef<string | undefined>(undefined);
 
     const [loadingError, setLoadingError] = useState<AdminLoadingErrorState>({
         product: { loading: false, error: null },
@@ -113,11 +117,13 @@ export const useAdmin = () => {
         }
     }, [setLoading]);
 
-    const fetchOrders = useCallback(async () => {
+    // Primeira página de /api/orders/page; as seguintes vêm de loadMoreOrders
+    const fetchOrders = useCallback(async (status: string | undefined = orderStatusFilter.current) => {
+        orderStatusFilter.current = status;
         setLoading('order', true);
         try {
-            const data = await getAllOrders();
-            setData(prev => ({ ...prev, orders: data }));
+            const page = await getOrdersPage({ status });
+            setData(prev => ({ ...prev, orders: page.items, ordersNextCursor: page.nextCursor }));
             setLoading('order', false);
         } catch (err: unknown) {
             console.error("Falha ao buscar pedidos:", err);
@@ -125,6 +131,19 @@ export const useAdmin = () => {
         }
     }, [setLoading]);
 
+    const loadMoreOrders = useCallback(async () => {
+        if (!data.ordersNextCursor) return;
+        setLoading('order', true);
+        try {
+            const page = await getOrdersPage({ status: orderStatusFilter.current, cursor: data.ordersNextCursor });
+            setData(prev => ({ ...prev, orders: [...prev.orders, ...page.items], ordersNextCursor: page.nextCursor }));
+            setLoading('order', false);
+        } catch (err: unknown) {
+            console.error("Falha ao buscar mais pedidos:", err);
+            setLoading('order', false, `Não foi possível carregar mais pedidos: ${getErrorMessage(err)}`);
+        }
+    }, [data.ordersNextCursor, setLoading]);
+
     const fetchUsers = useCallback(async () => {
         setLoading('user', true);
         try {
@@ -214,29 +233,35 @@ export const useAdmin = () => {
                 throw new Error("Pedido não encontrado para atualização de status.");
             }
             const updatedOrderData: Order = { ...currentOrder, status: newStatus };
-            await updateOrder(updatedOrderData);
-            await fetchOrders();
+            const saved: Order = await updateOrder(updatedOrderData);
+            // Atualiza só a linha editada, sem perder as páginas já carregadas
+            setData(prev => ({
+                ...prev,
+                orders: prev.orders.map(order => order.id === orderId ? (saved ?? updatedOrderData) : order)
+            }));
+            setLoading('order', false);
             return Promise.resolve();
         } catch (err: unknown) {
             const msg = `Erro ao atualizar status do pedido: ${getErrorMessage(err)}`;
             setLoading('order', false, msg);
             return Promise.reject(new Error(msg));
         }
-    }, [data.orders, fetchOrders, setLoading]); // Dependência data.orders para find()
+    }, [data.orders, setLoading]); // Dependência data.orders para find()
 
     const handleDeleteOrder = useCallback(async (orderId: string | number) => {
         if (!window.confirm("Tem certeza que deseja cancelar/excluir este pedido?")) return;
         setLoading('order', true);
         try {
             await deleteOrder(orderId);
-            await fetchOrders();
+            setData(prev => ({ ...prev, orders: prev.orders.filter(order => order.id !== orderId) }));
+            setLoading('order', false);
             return Promise.resolve();
         } catch (err: unknown) {
             const msg = `Erro ao excluir pedido: ${getErrorMessage(err)}`;
             setLoading('order', false, msg);
             return Promise.reject(new Error(msg));
         }
-    }, [fetchOrders, setLoading]);
+    }, [setLoading]);
 
     const handleEditUser = useCallback(async (userData: User) => {
         setLoading('user', true);
@@ -350,17 +375,8 @@ export const useAdmin = () => {
         }
     }, [fetchRestaurants, setLoading]);
 
-
-    // Initial data fetch on mount
-    useEffect(() => {
-        fetchProducts();
-        fetchOrders();
-        fetchUsers();
-        fetchPayments();
-        fetchOrderItems();
-        fetchRestaurants();
-        fetchMenuCategories();
-    }, [fetchProducts, fetchOrders, fetchUsers, fetchPayments, fetchOrderItems, fetchRestaurants, fetchMenuCategories]);
+    // Nada é carregado na montagem: o resumo vem de /api/dashboard/summary e cada seção
+    // chama seu fetch quando fica visível (useLoadWhenVisible)
 
 
     return {
@@ -369,7 +385,9 @@ export const useAdmin = () => {
         fetchProducts,
         handleAddEditProduct,
         handleDeleteProduct,
+        fetchMenuCategories,
         fetchOrders,
+        loadMoreOrders,
         handleUpdateOrderStatus,
         handleDeleteOrder,
         fetchUsers,
@@ -384,7 +402,5 @@ export const useAdmin = () => {
         fetchRestaurants,
         handleAddEditRestaurant,
         handleDeleteRestaurant,
-        // Você pode exportar as funções de fetch para serem chamadas manualmente se precisar
-        // Ou deixar que o useEffect cuide disso
     };
 };
\ No newline at end of file
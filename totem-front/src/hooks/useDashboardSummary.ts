@@ -0,0 +1,29 @@
+import { useState, useEffect, useCallback } from 'react';
+import { DashboardSummary } from '../service/interfaces';
+import { getDashboardSummary } from '../service/dashboard';
+
+// Resumo agregado do painel (contagens, faturamento do dia, pedidos em aberto e recentes)
+export const useDashboardSummary = (restaurantId?: number) => {
+    const [summary, setSummary] = useState<DashboardSummary | null>(null);
+    const [loading, setLoading] = useState(false);
+    const [error, setError] = useState<string | null>(null);
+
+    const fetchSummary = useCallback(async () => {
+        setLoading(true);
+        try {
+            setSummary(await getDashboardSummary(restaurantId));
+            setError(null);
+        } catch (err: unknown) {
+            console.error("Falha ao buscar resumo do painel:", err);
+            setError('Não foi possível carregar o resumo do painel.');
+        } finally {
+            setLoading(false);
+        }
+    }, [restaurantId]);
+
+    useEffect(() => {
+        fetchSummary();
+    }, [fetchSummary]);
+
+    return { summary, loading, error, fetchSummary };
+};
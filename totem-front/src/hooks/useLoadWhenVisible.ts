@@ -0,0 +1,36 @@
+import { useCallback, useEffect, useRef } from 'react';
+
+// Chama load uma única vez, quando o elemento chega perto da área visível
+export const useLoadWhenVisible = (load: () => void) => {
+    const loadRef = useRef(load);
+    const loaded = useRef(false);
+    const observer = useRef<IntersectionObserver | null>(null);
+
+    useEffect(() => {
+        loadRef.current = load;
+    }, [load]);
+
+    useEffect(() => () => observer.current?.disconnect(), []);
+
+    return useCallback((element: HTMLElement | null) => {
+        observer.current?.disconnect();
+        if (!element || loaded.current) {
+            return;
+        }
+        const trigger = () => {
+            loaded.current = true;
+            observer.current?.disconnect();
+            loadRef.current();
+        };
+        if (typeof IntersectionObserver === 'undefined') {
+            trigger();
+            return;
+        }
+        observer.current = new IntersectionObserver(entries => {
+            if (entries.some(entry => entry.isIntersecting)) {
+                trigger();
+            }
+        }, { rootMargin: '200px' });
+        observer.current.observe(element);
+    }, []);
+};
@@ -1,6 +1,7 @@
 import  { useState, useMemo } from 'react';
 import { Product, Order, User, Payment, OrderItem, Restaurant } from '../../service/interfaces';
 import { useAdmin } from '../../hooks/useAdmin'; // Importe o novo hook
+import { useLoadWhenVisible } from '../../hooks/useLoadWhenVisible';
 
 // Importe os componentes modais (e suas interfaces de props se precisar delas explicitamente)
 import ProductModal from '../../modals/ProductModal';
@@ -9,6 +10,7 @@ import UserModal from '../../modals/UserModal';
 import PaymentModal from '../../modals/PaymentModal';
 import OrderItemModal from '../../modals/OrderItemModal';
 import RestaurantModal from '../../modals/RestaurantModal';
+import DashboardSummaryCards from '../../components/DashboardSummaryCards';
 
 // Funções auxiliares (apenas as que não dependem do estado principal do dashboard)
 const formatOrderDate = (dateInput: string | Date | undefined): string => {
@@ -28,6 +30,8 @@ const AdminDashboard = () => {
     // const { authorities } = useAuth();
     const {
         data, loadingError,
+        fetchProducts, fetchMenuCategories, fetchOrders, loadMoreOrders,
+        fetchUsers, fetchPayments, fetchOrderItems, fetchRestaurants,
         handleAddEditProduct, handleDeleteProduct,
         handleUpdateOrderStatus, handleDeleteOrder,
         handleEditUser, handleDeleteUser,
@@ -36,6 +40,14 @@ const AdminDashboard = () => {
         handleAddEditRestaurant, handleDeleteRestaurant
     } = useAdmin(); // Use o novo hook!
 
+    // Só o resumo carrega na abertura; cada tabela busca seus dados ao ficar visível
+    const productsSectionRef = useLoadWhenVisible(() => { fetchProducts(); fetchMenuCategories(); });
+    const ordersSectionRef = useLoadWhenVisible(() => fetchOrders());
+    const usersSectionRef = useLoadWhenVisible(fetchUsers);
+    const paymentsSectionRef = useLoadWhenVisible(fetchPayments);
+    const orderItemsSectionRef = useLoadWhenVisible(fetchOrderItems);
+    const restaurantsSectionRef = useLoadWhenVisible(fetchRestaurants);
+
     // Estados para controlar a abertura dos modais e os itens selecionados
     const [selectedProduct, setSelectedProduct] = useState<Product | null>(null);
     const [isProductModalOpen, setIsProductModalOpen] = useState(false);
@@ -247,8 +259,10 @@ const AdminDashboard = () => {
                 Gerencie produtos, pedidos, usuários, pagamentos, itens de pedido e restaurantes do sistema.
             </p>
 
+            <DashboardSummaryCards />
+
             {/* --- Seção de Gerenciamento de Produtos --- */}
-            <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div ref={productsSectionRef} className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-3xl font-bold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Produtos</h3>
                     <button
@@ -366,7 +380,7 @@ const AdminDashboard = () => {
             </div>
 
             {/* --- Seção de Gerenciamento de Pedidos --- */}
-            <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div ref={ordersSectionRef} className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-3xl font-bold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Pedidos</h3>
                 </div>
@@ -389,7 +403,7 @@ const AdminDashboard = () => {
                         <select
                             id="filterOrderStatus"
                             value={filterOrderStatus}
-                            onChange={(e) => setFilterOrderStatus(e.target.value)}
+                            onChange={(e) => { setFilterOrderStatus(e.target.value); fetchOrders(e.target.value || undefined); }}
                             className="w-full px-3 py-2 border border-gray-300 rounded-md focus:outline-none focus:ring-2 focus:ring-blue-500"
                         >
                             <option value="">Todos</option>
@@ -508,10 +522,20 @@ const AdminDashboard = () => {
                         <p className="text-gray-600 text-center py-4">Nenhum pedido encontrado com os filtros aplicados.</p>
                     )
                 )}
+                {!loadingError.order.loading && data.ordersNextCursor && (
+                    <div className="flex justify-center mt-6">
+                        <button
+                            onClick={loadMoreOrders}
+                            className="px-6 py-2 bg-orange-500 text-white font-semibold rounded-md shadow-md hover:bg-orange-600 transition duration-300"
+                        >
+                            Carregar mais pedidos
+                        </button>
+                    </div>
+                )}
             </div>
 
             {/* --- Nova Seção de Gerenciamento de Usuários --- */}
-            <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div ref={usersSectionRef} className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-3xl font-bold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Usuários</h3>
                 </div>
@@ -618,7 +642,7 @@ const AdminDashboard = () => {
             </div>
 
             {/* --- Nova Seção de Gerenciamento de Pagamentos --- */}
-            <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div ref={paymentsSectionRef} className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-3xl font-bold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Pagamentos</h3>
                 </div>
@@ -733,7 +757,7 @@ const AdminDashboard = () => {
             </div>
 
             {/* --- Nova Seção de Gerenciamento de Itens de Pedido --- */}
-            <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div ref={orderItemsSectionRef} className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-3xl font-bold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Itens de Pedido</h3>
                 </div>
@@ -850,7 +874,7 @@ const AdminDashboard = () => {
             </div>
 
             {/* --- Nova Seção de Gerenciamento de Restaurantes --- */}
-            <div className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
+            <div ref={restaurantsSectionRef} className="bg-gray-100 rounded-lg shadow-md p-6 mb-10 border border-gray-200">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-3xl font-bold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Restaurantes</h3>
                     <button
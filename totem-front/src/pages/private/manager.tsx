@@ -2,19 +2,25 @@ import React, { useState, useMemo } from 'react'; // Removido useEffect e useCal
 import { useAuth } from '../../hooks/useAuth';
 import { Product } from '../../service/interfaces'; // Importe Product
 import { useAdmin } from '../../hooks/useAdmin'; // Importe o useAdmin hook
+import { useLoadWhenVisible } from '../../hooks/useLoadWhenVisible';
 
 // Importe o modal de produto específico para o gerente
 import ProductModalForManager from '../../modals/ProductModalForManager'; // Ajuste o caminho se necessário
+import DashboardSummaryCards from '../../components/DashboardSummaryCards';
 
 const ManagerDashboard: React.FC = () => {
     const { authorities } = useAuth();
     const {
         data, // Contém todos os dados (products, orders, etc.)
         loadingError, // Contém o estado de loading e erro para cada tipo
+        fetchProducts,
         handleAddEditProduct, // Funções CRUD para produtos do hook
         handleDeleteProduct
     } = useAdmin(); // Use o hook useAdmin
 
+    // Os produtos só são buscados quando a tabela fica visível; o topo da página é o resumo
+    const productsSectionRef = useLoadWhenVisible(fetchProducts);
+
     // Estados para controle do modal
     const [selectedProduct, setSelectedProduct] = useState<Product | null>(null);
     const [isProductModalOpen, setIsProductModalOpen] = useState(false);
@@ -77,8 +83,10 @@ const ManagerDashboard: React.FC = () => {
                 Bem-vindo, Gerente! Aqui você pode gerenciar os produtos.
             </p>
 
+            <DashboardSummaryCards />
+
             {/* --- Seção de Gerenciamento de Produtos --- */}
-            <div className="bg-white rounded-lg shadow-md p-6 mb-10">
+            <div ref={productsSectionRef} className="bg-white rounded-lg shadow-md p-6 mb-10">
                 <div className="flex flex-col sm:flex-row justify-between items-center mb-6">
                     <h3 className="text-2xl font-semibold text-gray-800 mb-4 sm:mb-0">Gerenciamento de Produtos</h3>
                     <button
@@ -0,0 +1,12 @@
+import { api } from "./api";
+import { DashboardSummary } from "./interfaces";
+
+export async function getDashboardSummary(restaurantId?: number): Promise<DashboardSummary> {
+    try {
+        const response = await api.get('/dashboard/summary', { params: { restaurantId } });
+        return response.data;
+    } catch (error) {
+        console.error('Erro ao buscar resumo do painel:', error);
+        throw error;
+    }
+}
@@ -89,4 +89,32 @@ export interface OrderItem {
     updatedAt?: string;
     productId?: number; // Belongs to a product
     orderId?: number; // Belongs to an order
-}
\ No newline at end of file
+}
+export interface RecentOrder {
+    id: number;
+    name?: string;
+    status: string;
+    consumptionMethod?: string;
+    total: number;
+    restaurantId: number;
+    createdAt: string;
+}
+
+export interface DashboardSummary {
+    products: number;
+    menuCategories: number;
+    restaurants: number;
+    users: number;
+    ordersToday: number;
+    paymentsToday: number;
+    revenueToday: number;
+    openOrdersByStatus: Record<string, number>;
+    recentOrders: RecentOrder[];
+    generatedAt: string;
+}
+
+// Página de /api/orders/page; nextCursor é null na última página
+export interface OrderPage {
+    items: Order[];
+    nextCursor: string | null;
+}
@@ -1,5 +1,5 @@
 import { api } from "./api";
-import { Order } from "./interfaces";
+import { Order, OrderPage } from "./interfaces";
 
 export async function getAllOrders() {
     try {
@@ -11,6 +11,26 @@ export async function getAllOrders() {
     }
 }
 
+export interface OrderPageParams {
+    restaurantId?: number;
+    status?: string;
+    cursor?: string | null;
+    size?: number;
+}
+
+// Paginação por cursor, mais recentes primeiro
+export async function getOrdersPage({ restaurantId, status, cursor, size = 50 }: OrderPageParams = {}): Promise<OrderPage> {
+    try {
+        const response = await api.get('/orders/page', {
+            params: { restaurantId, status: status || undefined, cursor: cursor || undefined, size }
+        });
+        return response.data;
+    } catch (error) {
+        console.error('Erro ao buscar página de pedidos:', error);
+        throw error;
+    }
+}
+
 export async function getOrderById(id: string | number) {
     try {
         const response = await api.get(`/orders/list/${id}`);
@@ -0,0 +1,25 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.doistemposcafe.totem.security.Jwt;
+import com.doistemposcafe.totem.security.VerifiedTokenCache;
+import org.springframework.test.util.ReflectionTestUtils;
+
+final class BenchmarkSupport {
+
+    static final String SECRET = "benchmark-secret-with-enough-entropy-for-hmac256";
+    static final long TEN_HOURS = 36_000_000L;
+
+    private BenchmarkSupport() {
+    }
+
+    /** Jwt configured as Spring would: @Value fields set and @PostConstruct init() called. */
+    static Jwt jwt(int verifiedCacheSize, boolean stateless) {
+        Jwt jwt = new Jwt(new VerifiedTokenCache(verifiedCacheSize));
+        ReflectionTestUtils.setField(jwt, "SECRET", SECRET);
+        ReflectionTestUtils.setField(jwt, "EXPIRATION_TIME", TEN_HOURS);
+        ReflectionTestUtils.setField(jwt, "STATELESS_EXPIRATION_TIME", TEN_HOURS);
+        ReflectionTestUtils.setField(jwt, "stateless", stateless);
+        ReflectionTestUtils.invokeMethod(jwt, "init");
+        return jwt;
+    }
+}
@@ -0,0 +1,82 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.doistemposcafe.totem.dto.Output.MenuCategoryOutputDTO;
+import com.doistemposcafe.totem.dto.Output.ProductOutputDTO;
+import com.doistemposcafe.totem.dto.Output.RestaurantOutputDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialização JSON das listas do cardápio, com um ObjectMapper configurado como o do Spring Boot.
+ * É o custo que o MenuSnapshotService paga uma vez por versão do catálogo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CatalogJsonBenchmark {
+
+    @Param({"20", "500"})
+    public int products;
+
+    private ObjectMapper objectMapper;
+    private List<ProductOutputDTO> productList;
+    private List<MenuCategoryOutputDTO> categoryList;
+    private List<RestaurantOutputDTO> restaurantList;
+
+    @Setup
+    public void setUp() {
+        objectMapper = JsonMapper.builder()
+                .findAndAddModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+
+        LocalDateTime now = LocalDateTime.now();
+        productList = new ArrayList<>();
+        for (long i = 0; i < products; i++) {
+            productList.add(new ProductOutputDTO(i, "Produto " + i, "Descrição do produto " + i, 12.9,
+                    "https://cdn.example.com/produtos/" + i + ".png", new String[]{"pão", "queijo", "presunto"},
+                    100, now, now, 1L, i % 5));
+        }
+        categoryList = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            categoryList.add(new MenuCategoryOutputDTO(i, "Categoria " + i, now, now, 1L));
+        }
+        restaurantList = List.of(new RestaurantOutputDTO(1L, "2 Tempos Café", "2-tempos-cafe", "Cafeteria",
+                "https://cdn.example.com/avatar.png", "https://cdn.example.com/cover.png", now, now, 1L));
+    }
+
+    @Benchmark
+    public byte[] products() throws Exception {
+        return objectMapper.writeValueAsBytes(productList);
+    }
+
+    @Benchmark
+    public byte[] categories() throws Exception {
+        return objectMapper.writeValueAsBytes(categoryList);
+    }
+
+    @Benchmark
+    public byte[] restaurants() throws Exception {
+        return objectMapper.writeValueAsBytes(restaurantList);
+    }
+}
@@ -0,0 +1,72 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.doistemposcafe.totem.security.Jwt;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Emissão e verificação de tokens. verifyUncached mede o HMAC + parse completos
+ * (cache de tamanho zero); verifyCached, o caminho de requisições repetidas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtBenchmark {
+
+    private Jwt jwt;
+    private Jwt uncachedJwt;
+    private UserDetails user;
+    private String token;
+    private DecodedJWT decoded;
+
+    @Setup
+    public void setUp() {
+        jwt = BenchmarkSupport.jwt(1024, false);
+        uncachedJwt = BenchmarkSupport.jwt(0, false);
+        user = User.withUsername("cliente@example.com").password("x").authorities("CLIENT").build();
+        token = jwt.generateToken(user);
+        decoded = jwt.verify(token);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwt.generateToken(user);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyUncached() {
+        return uncachedJwt.verify(token);
+    }
+
+    @Benchmark
+    public DecodedJWT verifyCached() {
+        return jwt.verify(token);
+    }
+
+    // What JwtFilter does per request: verify (cached) and then check against the user
+    @Benchmark
+    public boolean verifyAndValidate() {
+        return jwt.validateToken(jwt.verify(token), user);
+    }
+
+    @Benchmark
+    public boolean validateTokenDecoded() {
+        return jwt.validateToken(decoded, user);
+    }
+}
@@ -0,0 +1,73 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.doistemposcafe.totem.security.Jwt;
+import com.doistemposcafe.totem.security.JwtFilter;
+import com.doistemposcafe.totem.security.PrincipalCache;
+import com.doistemposcafe.totem.security.RevokedTokenRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtFilter de ponta a ponta para uma requisição autenticada: extração do header,
+ * verificação do token, carga do principal (ou claims, no modo stateless) e SecurityContext.
+ * O UserDetailsService é um stub em memória, então o custo do banco fica de fora.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JwtFilterBenchmark {
+
+    @Param({"false", "true"})
+    public boolean stateless;
+
+    private JwtFilter filter;
+    private String authorization;
+
+    @Setup
+    public void setUp() {
+        Jwt jwt = BenchmarkSupport.jwt(1024, stateless);
+        UserDetails user = User.withUsername("cliente@example.com").password("x").authorities("CLIENT").build();
+        UserDetailsService userDetailsService = username -> user;
+
+        filter = new JwtFilter();
+        ReflectionTestUtils.setField(filter, "jwt", jwt);
+        ReflectionTestUtils.setField(filter, "userDetailsService", userDetailsService);
+        ReflectionTestUtils.setField(filter, "principalCache", new PrincipalCache(300, 10_000));
+        ReflectionTestUtils.setField(filter, "revokedTokenRegistry", new RevokedTokenRegistry(jwt));
+        ReflectionTestUtils.setField(filter, "meterRegistry", new SimpleMeterRegistry());
+        authorization = "Bearer " + jwt.generateToken(user);
+    }
+
+    @Benchmark
+    public Object authenticatedRequest() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/orders/list");
+        request.addHeader("Authorization", authorization);
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Object authentication = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        return authentication;
+    }
+}
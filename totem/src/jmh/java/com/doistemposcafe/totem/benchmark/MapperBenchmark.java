@@ -0,0 +1,134 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.doistemposcafe.totem.dto.Output.OrderOutputDTO;
+import com.doistemposcafe.totem.dto.Output.PaymentOutputDTO;
+import com.doistemposcafe.totem.dto.Output.ProductOutputDTO;
+import com.doistemposcafe.totem.dto.mapper.OrderMapper;
+import com.doistemposcafe.totem.dto.mapper.OrderMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.PaymentMapper;
+import com.doistemposcafe.totem.dto.mapper.PaymentMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.ProductMapper;
+import com.doistemposcafe.totem.dto.mapper.ProductMapperImpl;
+import com.doistemposcafe.totem.model.MenuCategory;
+import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.Payment;
+import com.doistemposcafe.totem.model.PaymentStatus;
+import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.model.Restaurant;
+import com.doistemposcafe.totem.model.User;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo dos mapeamentos MapStruct usados nas listagens, sobre entidades já em memória.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MapperBenchmark {
+
+    @Param({"20", "500"})
+    public int rows;
+
+    private final OrderMapper orderMapper = new OrderMapperImpl();
+    private final ProductMapper productMapper = new ProductMapperImpl();
+    private final PaymentMapper paymentMapper = new PaymentMapperImpl();
+
+    private List<Order> orders;
+    private List<Product> products;
+    private List<Payment> payments;
+    private LocalDateTime now;
+
+    @Setup
+    public void setUp() {
+        Restaurant restaurant = new Restaurant();
+        restaurant.setId(1L);
+        MenuCategory category = new MenuCategory();
+        category.setId(1L);
+        User user = new User();
+        user.setId(1L);
+        now = LocalDateTime.now();
+
+        orders = new ArrayList<>();
+        products = new ArrayList<>();
+        payments = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            Order order = new Order();
+            order.setId(i);
+            order.setName("Pedido " + i);
+            order.setStatus(OrderStatus.PENDING);
+            order.setConsumption_method("DINE_IN");
+            order.setTotal(42.5);
+            order.setCreatedAt(now);
+            order.setUpdatedAt(now);
+            order.setUser(user);
+            order.setRestaurant(restaurant);
+            orders.add(order);
+
+            Product product = new Product();
+            product.setId(i);
+            product.setName("Produto " + i);
+            product.setDescription("Descrição do produto " + i);
+            product.setPrice(12.9);
+            product.setIngredients(new String[]{"pão", "queijo", "presunto"});
+            product.setAmount(100);
+            product.setCreatedAt(now);
+            product.setRestaurant(restaurant);
+            product.setMenuCategory(category);
+            products.add(product);
+
+            Payment payment = new Payment();
+            payment.setId(i);
+            payment.setMethod("PIX");
+            payment.setAmount(42.5);
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setTransactionId("tx-" + i);
+            payment.setPaymentDate(now);
+            payment.setOrder(order);
+            payments.add(payment);
+        }
+    }
+
+    @Benchmark
+    public List<OrderOutputDTO> orders() {
+        return orderMapper.toOutputDTOs(orders);
+    }
+
+    @Benchmark
+    public List<ProductOutputDTO> products() {
+        return productMapper.toOutputDTOs(products);
+    }
+
+    @Benchmark
+    public List<PaymentOutputDTO> payments() {
+        return paymentMapper.toOutputDTOs(payments);
+    }
+
+    // PaymentMapper's shared DateTimeFormatter, once per row as a formatted listing would
+    @Benchmark
+    public List<String> paymentDateFormatting() {
+        List<String> formatted = new ArrayList<>(rows);
+        for (Payment payment : payments) {
+            formatted.add(paymentMapper.formatDateTime(payment.getPaymentDate()));
+        }
+        return formatted;
+    }
+}
@@ -0,0 +1,173 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.doistemposcafe.totem.model.EmailOutbox;
+import com.doistemposcafe.totem.model.IdempotencyRecord;
+import com.doistemposcafe.totem.model.Manager;
+import com.doistemposcafe.totem.model.MenuCategory;
+import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.PasswordResetToken;
+import com.doistemposcafe.totem.model.Payment;
+import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.model.Restaurant;
+import com.doistemposcafe.totem.model.Role;
+import com.doistemposcafe.totem.model.User;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.hibernate.cfg.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Itens de pedido gravados por segundo, salvando pedidos de 20 itens pelas entidades do Hibernate
+ * em uma transação por pedido. "SEQUENCE" é o mapeamento atual (sequência pooled e lote JDBC);
+ * "IDENTITY" sobrepõe os IDs de Order e OrderItem com orm.xml, como era antes: um INSERT por item.
+ *
+ * Usa H2 em memória por padrão; para medir no Postgres:
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="OrderInsertBenchmark
+ *     -jvmArgs -Dbenchmark.db.url=jdbc:postgresql://localhost:5432/totem_db?reWriteBatchedInserts=true
+ *     -jvmArgs -Dbenchmark.db.user=totem_user -jvmArgs -Dbenchmark.db.password=..."
+ * O banco precisa estar vazio: as tabelas são criadas no início e apagadas no fim.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(OrderInsertBenchmark.LINES_PER_ORDER)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class OrderInsertBenchmark {
+
+    static final int LINES_PER_ORDER = 20;
+
+    private static final String IDENTITY_IDS = """
+            <entity-mappings xmlns="https://jakarta.ee/xml/ns/persistence/orm" version="3.1">
+                <entity class="com.doistemposcafe.totem.model.Order">
+                    <attributes><id name="id"><generated-value strategy="IDENTITY"/></id></attributes>
+                </entity>
+                <entity class="com.doistemposcafe.totem.model.OrderItem">
+                    <attributes><id name="id"><generated-value strategy="IDENTITY"/></id></attributes>
+                </entity>
+            </entity-mappings>
+            """;
+
+    @Param({"IDENTITY", "SEQUENCE"})
+    public String ids;
+
+    private SessionFactory sessionFactory;
+    private Restaurant restaurant;
+    private Product product;
+    private User user;
+
+    @Setup
+    public void setUp() {
+        Configuration configuration = new Configuration()
+                .setProperty("hibernate.connection.url",
+                        System.getProperty("benchmark.db.url", "jdbc:h2:mem:orders;DB_CLOSE_DELAY=-1"))
+                .setProperty("hibernate.connection.username", System.getProperty("benchmark.db.user", "sa"))
+                .setProperty("hibernate.connection.password", System.getProperty("benchmark.db.password", ""))
+                .setProperty("hibernate.hbm2ddl.auto", "create-drop")
+                // Same settings as application.properties
+                .setProperty("hibernate.jdbc.batch_size", "50")
+                .setProperty("hibernate.order_inserts", "true")
+                .setProperty("hibernate.order_updates", "true")
+                .setProperty("hibernate.id.optimizer.pooled.preferred", "pooled");
+        for (Class<?> entity : new Class<?>[]{Manager.class, Restaurant.class, MenuCategory.class, Product.class,
+                User.class, Order.class, OrderItem.class, Payment.class, EmailOutbox.class,
+                IdempotencyRecord.class, PasswordResetToken.class}) {
+            configuration.addAnnotatedClass(entity);
+        }
+        if ("IDENTITY".equals(ids)) {
+            configuration.addInputStream(new ByteArrayInputStream(IDENTITY_IDS.getBytes(StandardCharsets.UTF_8)));
+        }
+        sessionFactory = configuration.buildSessionFactory();
+
+        sessionFactory.inTransaction(session -> {
+            Manager manager = new Manager();
+            manager.setName("Gerente");
+            manager.setEmail("gerente@example.com");
+            manager.setRole(Role.MANAGER);
+            session.persist(manager);
+
+            restaurant = new Restaurant();
+            restaurant.setName("Restaurante");
+            restaurant.setSlug("restaurante");
+            restaurant.setDescription("Descrição");
+            restaurant.setManager(manager);
+            session.persist(restaurant);
+
+            MenuCategory category = new MenuCategory();
+            category.setName("Categoria");
+            category.setRestaurant(restaurant);
+            session.persist(category);
+
+            product = new Product();
+            product.setName("Produto");
+            product.setPrice(10);
+            product.setAmount(100);
+            product.setRestaurant(restaurant);
+            product.setMenuCategory(category);
+            session.persist(product);
+
+            user = new User();
+            user.setName("Cliente");
+            user.setEmail("cliente@example.com");
+            user.setPassword("x");
+            user.setRole(Role.CLIENT);
+            session.persist(user);
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        sessionFactory.close();
+    }
+
+    @Benchmark
+    public Order twentyLineOrder() {
+        try (Session session = sessionFactory.openSession()) {
+            Order order = order(session);
+            session.beginTransaction();
+            session.persist(order);
+            session.getTransaction().commit();
+            return order;
+        }
+    }
+
+    // Only the order and its lines are written; the rest goes in as references, like a checkout
+    private Order order(Session session) {
+        Product productRef = session.getReference(Product.class, product.getId());
+        Order order = new Order();
+        order.setName("Pedido");
+        order.setStatus(OrderStatus.PENDING);
+        order.setConsumption_method("DINE_IN");
+        order.setUser(session.getReference(User.class, user.getId()));
+        order.setRestaurant(session.getReference(Restaurant.class, restaurant.getId()));
+        for (int line = 0; line < LINES_PER_ORDER; line++) {
+            OrderItem item = new OrderItem();
+            item.setName(product.getName());
+            item.setQuantity(1 + line % 3);
+            item.setPrice(product.getPrice());
+            item.setProduct(productRef);
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,70 @@
+package com.doistemposcafe.totem.benchmark;
+
+import com.doistemposcafe.totem.config.AsyncConfig;
+import com.doistemposcafe.totem.config.SecurityConfig;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do BCrypt por login/cadastro. "configured" é o encoder de SecurityConfig, com o
+ * custo padrão e o passwordHashExecutor (inclui a troca de thread); os demais valores de
+ * strength servem para decidir um novo custo (security.password.bcrypt-cost).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class PasswordEncoderBenchmark {
+
+    @Param({"configured", "8", "12"})
+    public String strength;
+
+    private ThreadPoolTaskExecutor hashExecutor;
+    private PasswordEncoder encoder;
+    private String hash;
+
+    @Setup
+    public void setUp() {
+        if ("configured".equals(strength)) {
+            hashExecutor = new AsyncConfig(false).passwordHashExecutor(0, 32);
+            encoder = new SecurityConfig().passwordEncoder(hashExecutor, 10);
+        } else {
+            encoder = new BCryptPasswordEncoder(Integer.parseInt(strength));
+        }
+        hash = encoder.encode("Totem1234");
+    }
+
+    @TearDown
+    public void tearDown() {
+        if (hashExecutor != null) {
+            hashExecutor.shutdown();
+        }
+    }
+
+    @Benchmark
+    public String encode() {
+        return encoder.encode("Totem1234");
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return encoder.matches("Totem1234", hash);
+    }
+}
@@ -0,0 +1,335 @@
+package com.doistemposcafe.totem.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ScriptUtils;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Simula o horário de almoço: cada totem executa sessões completas em sequência
+ * (login, cardápio, pedido, itens, pagamento) contra a aplicação real e um Postgres embarcado
+ * criado a partir do init_db.sql. Ao final imprime p50/p95/p99 e vazão por endpoint e grava
+ * o mesmo relatório em JSON (loadtest.report) para comparar versões. Respostas 429/503 com
+ * Retry-After são repetidas após a espera, como no app do totem, e contadas como "rejected".
+ *
+ * Parâmetros (-D): loadtest.kiosks, loadtest.sessions-per-kiosk, loadtest.items-per-order.
+ * O modo de threads do servidor vem de spring.threads.virtual.enabled e sai no relatório, para
+ * comparar virtual threads e o pool de platform threads do Tomcat com a mesma carga.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "spring.jpa.show-sql=false",
+        "jwt.secret=loadtest-secret-with-enough-entropy-for-hmac256",
+        "jwt.expiration.time=36000000",
+        "spring.mail.host=localhost",
+        "spring.mail.port=2525",
+        "spring.mail.username=loadtest",
+        "spring.mail.password=loadtest",
+        "spring.mail.test-connection=false",
+        // Every simulated kiosk logs in from 127.0.0.1
+        "security.login-throttle.ip-capacity=100000",
+        "security.login-throttle.ip-refill-per-minute=100000"
+})
+// Metrics stay on, as in production
+@AutoConfigureObservability
+class LunchRushLoadTest {
+
+    private static final int KIOSKS = Integer.getInteger("loadtest.kiosks", 20);
+    private static final int SESSIONS_PER_KIOSK = Integer.getInteger("loadtest.sessions-per-kiosk", 25);
+    private static final int ITEMS_PER_ORDER = Integer.getInteger("loadtest.items-per-order", 3);
+    private static final long RESTAURANT_ID = 1;
+    private static final String PASSWORD = "Totem1234";
+    private static final int MAX_RETRIES = 30;
+
+    private static EmbeddedPostgres postgres;
+
+    @LocalServerPort
+    private int port;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private ObjectMapper objectMapper;
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+    @Value("${spring.datasource.hikari.maximum-pool-size:10}")
+    private int dbPoolSize;
+
+    private final HttpClient http = HttpClient.newHttpClient();
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private List<Long> productIds;
+    private List<Double> productPrices;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) throws IOException, SQLException {
+        postgres = EmbeddedPostgres.builder().start();
+        try (Connection connection = postgres.getPostgresDatabase().getConnection()) {
+            ScriptUtils.executeSqlScript(connection,
+                    new FileSystemResource(System.getProperty("loadtest.init-script", "../init_db.sql")));
+        }
+        registry.add("spring.datasource.url", () -> postgres.getJdbcUrl("postgres", "postgres"));
+        registry.add("spring.datasource.username", () -> "postgres");
+        registry.add("spring.datasource.password", () -> "postgres");
+        registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+    }
+
+    @AfterAll
+    static void stopDatabase() throws IOException {
+        if (postgres != null) {
+            postgres.close();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        // The script seeds one unit per product; the rush must not be limited by stock
+        jdbcTemplate.update("UPDATE product SET amount = 1000000 WHERE restaurant_id = ?", RESTAURANT_ID);
+        productIds = jdbcTemplate.queryForList("SELECT id FROM product WHERE restaurant_id = ? ORDER BY id", Long.class, RESTAURANT_ID);
+        productPrices = jdbcTemplate.queryForList("SELECT price FROM product WHERE restaurant_id = ? ORDER BY id", Double.class, RESTAURANT_ID);
+
+        // One account per kiosk, hashed once: only the login itself is measured
+        String hash = passwordEncoder.encode(PASSWORD);
+        List<Object[]> users = new ArrayList<>();
+        for (int kiosk = 0; kiosk < KIOSKS; kiosk++) {
+            users.add(new Object[]{"Totem " + kiosk, email(kiosk), hash, String.format("%011d", kiosk)});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO users (name, email, password, cpf, role) VALUES (?, ?, ?, ?, 'CLIENT') "
+                + "ON CONFLICT (email) DO NOTHING", users);
+    }
+
+    @Test
+    void lunchRush() throws Exception {
+        ExecutorService kiosks = Executors.newFixedThreadPool(KIOSKS);
+        AtomicInteger orders = new AtomicInteger();
+        List<Future<?>> running = new ArrayList<>();
+
+        long start = System.nanoTime();
+        for (int kiosk = 0; kiosk < KIOSKS; kiosk++) {
+            int id = kiosk;
+            running.add(kiosks.submit(() -> {
+                String menuETag = null;
+                for (int session = 0; session < SESSIONS_PER_KIOSK; session++) {
+                    menuETag = runSession(id, menuETag);
+                    orders.incrementAndGet();
+                }
+                return null;
+            }));
+        }
+        for (Future<?> kiosk : running) {
+            kiosk.get();
+        }
+        double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+        kiosks.shutdown();
+
+        Map<String, Object> report = report(orders.get(), elapsedSeconds);
+        Path reportFile = Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json"));
+        Files.createDirectories(reportFile.toAbsolutePath().getParent());
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(reportFile.toFile(), report);
+
+        assertThat(orders.get()).isEqualTo(KIOSKS * SESSIONS_PER_KIOSK);
+        stats.forEach((endpoint, endpointStats) -> assertThat(endpointStats.errors.get())
+                .as("erros em " + endpoint).isZero());
+    }
+
+    private String runSession(int kiosk, String menuETag) throws Exception {
+        JsonNode login = post("login", "/api/auth/login", null,
+                Map.of("email", email(kiosk), "password", PASSWORD), 200);
+        String token = login.get("token").asText();
+        long userId = login.get("userOutputDTO").get("id").asLong();
+
+        // Kiosks keep the menu and revalidate it with If-None-Match
+        HttpRequest.Builder browse = request("/api/products/list?restaurantId=" + RESTAURANT_ID, null).GET();
+        if (menuETag != null) {
+            browse.header("If-None-Match", menuETag);
+        }
+        HttpResponse<String> menu = send("browse", browse.build(), 200, 304);
+        String eTag = menu.headers().firstValue("ETag").orElse(menuETag);
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        List<Integer> picks = new ArrayList<>();
+        double total = 0;
+        for (int i = 0; i < ITEMS_PER_ORDER; i++) {
+            int pick = random.nextInt(productIds.size());
+            picks.add(pick);
+            total += productPrices.get(pick);
+        }
+
+        Map<String, Object> order = new LinkedHashMap<>();
+        order.put("name", "Totem " + kiosk);
+        order.put("status", "PENDING");
+        order.put("consumption_method", random.nextBoolean() ? "DINE_IN" : "TAKEAWAY");
+        order.put("total", total);
+        order.put("userId", userId);
+        order.put("restaurantId", RESTAURANT_ID);
+        long orderId = post("create order", "/api/orders/save", token, order, 201).get("id").asLong();
+
+        for (int pick : picks) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("price", productPrices.get(pick));
+            item.put("quantity", 1);
+            item.put("status", "PENDING");
+            item.put("productId", productIds.get(pick));
+            item.put("orderId", orderId);
+            post("add item", "/api/order-items/save", token, item, 200, 201);
+        }
+
+        Map<String, Object> payment = new LinkedHashMap<>();
+        payment.put("method", "PIX");
+        payment.put("amount", total);
+        payment.put("status", "COMPLETED");
+        payment.put("transactionId", UUID.randomUUID().toString());
+        payment.put("orderId", orderId);
+        payment.put("userId", userId);
+        post("pay", "/api/payments/save", token, payment, 200, 201);
+        return eTag;
+    }
+
+    private JsonNode post(String endpoint, String path, String token, Object body, int... expected) throws Exception {
+        HttpRequest request = request(path, token)
+                .header("Content-Type", "application/json")
+                .header("Idempotency-Key", UUID.randomUUID().toString())
+                .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)))
+                .build();
+        return objectMapper.readTree(send(endpoint, request, expected).body());
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            builder.header("Authorization", "Bearer " + token);
+        }
+        return builder;
+    }
+
+    private HttpResponse<String> send(String endpoint, HttpRequest request, int... expected) throws Exception {
+        EndpointStats endpointStats = stats.computeIfAbsent(endpoint, name -> new EndpointStats());
+        long start = System.nanoTime();
+        HttpResponse<String> response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        // Load shedding (429/503 with Retry-After): wait plus jitter and resend, as the kiosk app does
+        for (int retry = 0; retry < MAX_RETRIES && isShed(response); retry++) {
+            endpointStats.rejected.incrementAndGet();
+            long retryAfterMs = TimeUnit.SECONDS.toMillis(Long.parseLong(response.headers().firstValue("Retry-After").orElseThrow()));
+            Thread.sleep(retryAfterMs + ThreadLocalRandom.current().nextLong(retryAfterMs));
+            response = http.send(request, HttpResponse.BodyHandlers.ofString());
+        }
+        endpointStats.record(System.nanoTime() - start);
+        for (int status : expected) {
+            if (response.statusCode() == status) {
+                return response;
+            }
+        }
+        endpointStats.errors.incrementAndGet();
+        throw new IllegalStateException(endpoint + " respondeu " + response.statusCode() + ": " + response.body());
+    }
+
+    private Map<String, Object> report(int orders, double elapsedSeconds) {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("threads", virtualThreads ? "virtual" : "platform");
+        report.put("dbPoolSize", dbPoolSize);
+        report.put("kiosks", KIOSKS);
+        report.put("orders", orders);
+        report.put("elapsedSeconds", elapsedSeconds);
+        report.put("ordersPerSecond", orders / elapsedSeconds);
+
+        Map<String, Object> endpoints = new LinkedHashMap<>();
+        System.out.printf("%n%-14s %8s %10s %9s %9s %9s %8s %7s%n", "endpoint", "requests", "req/s", "p50 ms", "p95 ms", "p99 ms", "rejected", "errors");
+        for (String endpoint : List.of("login", "browse", "create order", "add item", "pay")) {
+            EndpointStats endpointStats = stats.get(endpoint);
+            if (endpointStats == null) {
+                continue;
+            }
+            List<Long> latencies = endpointStats.sorted();
+            Map<String, Object> line = new LinkedHashMap<>();
+            line.put("requests", latencies.size());
+            line.put("requestsPerSecond", latencies.size() / elapsedSeconds);
+            line.put("p50Ms", percentile(latencies, 50));
+            line.put("p95Ms", percentile(latencies, 95));
+            line.put("p99Ms", percentile(latencies, 99));
+            line.put("rejected", endpointStats.rejected.get());
+            line.put("errors", endpointStats.errors.get());
+            endpoints.put(endpoint, line);
+            System.out.printf("%-14s %8d %10.1f %9.2f %9.2f %9.2f %8d %7d%n", endpoint, latencies.size(),
+                    latencies.size() / elapsedSeconds, percentile(latencies, 50), percentile(latencies, 95),
+                    percentile(latencies, 99), endpointStats.rejected.get(), endpointStats.errors.get());
+        }
+        System.out.printf("%d pedidos em %.1f s: %.1f pedidos/s (threads %s, pool %d)%n%n", orders, elapsedSeconds,
+                orders / elapsedSeconds, virtualThreads ? "virtual" : "platform", dbPoolSize);
+        report.put("endpoints", endpoints);
+        return report;
+    }
+
+    private static double percentile(List<Long> sortedNanos, int percentile) {
+        if (sortedNanos.isEmpty()) {
+            return 0;
+        }
+        // Nearest-rank
+        int rank = (int) Math.ceil(percentile / 100.0 * sortedNanos.size());
+        return sortedNanos.get(Math.max(rank, 1) - 1) / 1_000_000.0;
+    }
+
+    private static boolean isShed(HttpResponse<String> response) {
+        return (response.statusCode() == 429 || response.statusCode() == 503)
+                && response.headers().firstValue("Retry-After").isPresent();
+    }
+
+    private static String email(int kiosk) {
+        return "totem" + kiosk + "@loadtest.local";
+    }
+
+    private static final class EndpointStats {
+        private final List<Long> latencies = Collections.synchronizedList(new ArrayList<>());
+        private final AtomicInteger errors = new AtomicInteger();
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        void record(long nanos) {
+            latencies.add(nanos);
+        }
+
+        List<Long> sorted() {
+            List<Long> copy;
+            synchronized (latencies) {
+                copy = new ArrayList<>(latencies);
+            }
+            Collections.sort(copy);
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.doistemposcafe.totem.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Executores da aplicação. Com spring.threads.virtual.enabled=true o Tomcat, o @Scheduled e o
+ * applicationTaskExecutor já rodam em virtual threads (Spring Boot); aqui os executores de I/O
+ * seguem o mesmo modo, mantendo os limites de concorrência.
+ */
+@Configuration
+@EnableScheduling
+public class AsyncConfig {
+
+    private final boolean virtualThreads;
+
+    public AsyncConfig(@Value("${spring.threads.virtual.enabled:false}") boolean virtualThreads) {
+        this.virtualThreads = virtualThreads;
+    }
+
+    // Bounded pool for SMTP delivery; never runs on request threads
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${mail.outbox.concurrency:2}") int concurrency) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        // The pool size still caps concurrent SMTP sessions when threads are virtual
+        executor.setVirtualThreads(virtualThreads);
+        executor.setCorePoolSize(concurrency);
+        executor.setMaxPoolSize(concurrency);
+        executor.setQueueCapacity(concurrency);
+        executor.setThreadNamePrefix("mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.initialize();
+        return executor;
+    }
+
+    // Single thread keeps kitchen events in commit order per restaurant
+    @Bean(name = "kitchenStreamExecutor")
+    public ThreadPoolTaskExecutor kitchenStreamExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(1);
+        executor.setMaxPoolSize(1);
+        executor.setVirtualThreads(virtualThreads);
+        executor.setThreadNamePrefix("kitchen-sse-");
+        executor.initialize();
+        return executor;
+    }
+
+    // BCrypt is CPU-bound: platform threads, one per core, and a full queue rejects instead of piling up logins
+    @Bean(name = "passwordHashExecutor")
+    public ThreadPoolTaskExecutor passwordHashExecutor(@Value("${security.password.hash-threads:0}") int threads,
+                                                       @Value("${security.password.hash-queue-capacity:32}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("bcrypt-");
+        executor.initialize();
+        return executor;
+    }
+}
@@ -0,0 +1,49 @@
+package com.doistemposcafe.totem.config;
+
+import com.doistemposcafe.totem.tracing.SqlTracing;
+import com.doistemposcafe.totem.tracing.SqlTracingFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Rastreamento de SQL por requisição (substitui spring.jpa.show-sql). Desligado com sql.trace.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sql.trace.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlTracingConfig {
+
+    @Bean
+    public static BeanPostProcessor sqlTracingDataSourcePostProcessor(
+            @Value("${sql.trace.slow-query-ms:200}") long slowQueryMs) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource && !SqlTracing.isTraced(dataSource)
+                        ? SqlTracing.trace(dataSource, slowQueryMs)
+                        : bean;
+            }
+        };
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlTracingFilter> sqlTracingFilter(
+            MeterRegistry meterRegistry,
+            @Value("${sql.trace.max-statements:20}") int maxStatements,
+            @Value("${sql.trace.max-db-time-ms:500}") long maxDbTimeMs,
+            @Value("${sql.trace.max-logged-statements:50}") int maxLoggedStatements,
+            @Value("${sql.trace.headers:false}") boolean headers) {
+        FilterRegistrationBean<SqlTracingFilter> registration = new FilterRegistrationBean<>(
+                new SqlTracingFilter(meterRegistry, maxStatements, maxDbTimeMs, maxLoggedStatements, headers));
+        // Ahead of Spring Security, so the principal lookup in JwtFilter is counted too
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+}
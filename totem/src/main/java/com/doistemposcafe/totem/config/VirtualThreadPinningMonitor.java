@@ -0,0 +1,78 @@
+package com.doistemposcafe.totem.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * No modo virtual threads, acompanha pelo JFR (jdk.VirtualThreadPinned) as virtual threads que ficam
+ * presas à carrier thread por mais de virtual-threads.pinned-threshold-ms — bloqueio dentro de
+ * synchronized ou de código nativo — e conta em totem.virtual-threads.pinned, com a pilha no log.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.threads.virtual.enabled", havingValue = "true")
+public class VirtualThreadPinningMonitor {
+
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+
+    private final Counter pinned;
+    private final Duration threshold;
+    private final int maxFrames;
+    private RecordingStream recording;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry,
+                                       @Value("${virtual-threads.pinned-threshold-ms:20}") long thresholdMs,
+                                       @Value("${virtual-threads.pinned-stack-depth:12}") int maxFrames) {
+        this.pinned = Counter.builder("totem.virtual-threads.pinned")
+                .description("Virtual threads presas à carrier thread acima do limite")
+                .register(meterRegistry);
+        this.threshold = Duration.ofMillis(thresholdMs);
+        this.maxFrames = maxFrames;
+    }
+
+    @PostConstruct
+    public void start() {
+        recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+    }
+
+    @PreDestroy
+    public void stop() {
+        recording.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        logger.warn("Virtual thread presa à carrier por {} ms:\n{}",
+                event.getDuration().toMillis(), stack(event.getStackTrace()));
+    }
+
+    private String stack(RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return "\t(sem pilha)";
+        }
+        List<RecordedFrame> frames = stackTrace.getFrames();
+        return frames.stream()
+                .limit(maxFrames)
+                .map(frame -> "\tat " + frame.getMethod().getType().getName() + "." + frame.getMethod().getName()
+                        + (frame.getLineNumber() > 0 ? ":" + frame.getLineNumber() : ""))
+                .collect(Collectors.joining("\n"));
+    }
+}
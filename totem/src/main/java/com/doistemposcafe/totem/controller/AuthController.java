@@ -3,6 +3,7 @@ package com.doistemposcafe.totem.controller;
 import com.doistemposcafe.totem.dto.Input.LoginInputDTO;
 import com.doistemposcafe.totem.dto.Output.LoginOutputDTO;
 import com.doistemposcafe.totem.service.AuthService;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -18,8 +19,8 @@ public class AuthController {
     private AuthService authService;
 
     @PostMapping("/login")
-    public ResponseEntity<LoginOutputDTO> login(@RequestBody LoginInputDTO requestDTO) {
-        LoginOutputDTO loginResponse = authService.authenticate(requestDTO.email(), requestDTO.password());
+    public ResponseEntity<LoginOutputDTO> login(@RequestBody LoginInputDTO requestDTO, HttpServletRequest request) {
+        LoginOutputDTO loginResponse = authService.authenticate(requestDTO.email(), requestDTO.password(), request.getRemoteAddr());
         return ResponseEntity.ok(loginResponse);
     }
 }
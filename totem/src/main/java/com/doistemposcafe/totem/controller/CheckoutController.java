@@ -0,0 +1,34 @@
+package com.doistemposcafe.totem.controller;
+
+import com.doistemposcafe.totem.dto.Input.CheckoutInputDTO;
+import com.doistemposcafe.totem.dto.Output.CheckoutOutputDTO;
+import com.doistemposcafe.totem.service.BusinessMetrics;
+import com.doistemposcafe.totem.service.CheckoutService;
+import com.doistemposcafe.totem.service.IdempotencyService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequestMapping("/api/checkout")
+public class CheckoutController {
+
+    private final CheckoutService checkoutService;
+    private final IdempotencyService idempotencyService;
+    private final BusinessMetrics businessMetrics;
+
+    public CheckoutController(CheckoutService checkoutService, IdempotencyService idempotencyService,
+                              BusinessMetrics businessMetrics) {
+        this.checkoutService = checkoutService;
+        this.idempotencyService = idempotencyService;
+        this.businessMetrics = businessMetrics;
+    }
+
+    @PostMapping
+    public ResponseEntity<CheckoutOutputDTO> checkout(@RequestBody CheckoutInputDTO inputDTO,
+                                                      @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("checkout", idempotencyKey, inputDTO, CheckoutOutputDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(
+                        businessMetrics.timeCheckout(inputDTO.restaurantId(), () -> checkoutService.checkout(inputDTO))));
+    }
+}
@@ -0,0 +1,38 @@
+package com.doistemposcafe.totem.controller;
+
+import com.doistemposcafe.totem.dto.Output.DashboardSummaryOutputDTO;
+import com.doistemposcafe.totem.dto.Output.LiveCountersOutputDTO;
+import com.doistemposcafe.totem.service.DashboardService;
+import com.doistemposcafe.totem.service.LiveCounters;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/dashboard")
+public class DashboardController {
+
+    private final DashboardService dashboardService;
+    private final LiveCounters liveCounters;
+
+    public DashboardController(DashboardService dashboardService, LiveCounters liveCounters) {
+        this.dashboardService = dashboardService;
+        this.liveCounters = liveCounters;
+    }
+
+    @GetMapping("/summary")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<DashboardSummaryOutputDTO> getSummary(@RequestParam(required = false) Long restaurantId) {
+        return ResponseEntity.ok(dashboardService.getSummary(restaurantId));
+    }
+
+    // Served from memory; safe to poll every few seconds
+    @GetMapping("/live")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<LiveCountersOutputDTO> getLiveCounters(@RequestParam(required = false) Long restaurantId) {
+        return ResponseEntity.ok(liveCounters.getCounters(restaurantId));
+    }
+}
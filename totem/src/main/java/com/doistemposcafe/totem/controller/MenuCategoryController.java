@@ -4,10 +4,14 @@ import com.doistemposcafe.totem.dto.Input.MenuCategoryInputDTO;
 import com.doistemposcafe.totem.dto.Output.MenuCategoryOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.MenuCategoryMapper;
 import com.doistemposcafe.totem.service.MenuCategoryService;
+import com.doistemposcafe.totem.service.MenuSnapshotService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,16 +21,32 @@ public class MenuCategoryController {
 
     private final MenuCategoryService menuCategoryService;
     private final MenuCategoryMapper menuCategoryMapper;
+    private final MenuSnapshotService menuSnapshotService;
 
     public MenuCategoryController(MenuCategoryService menuCategoryService,
-                                  MenuCategoryMapper menuCategoryMapper) {
+                                  MenuCategoryMapper menuCategoryMapper,
+                                  MenuSnapshotService menuSnapshotService) {
         this.menuCategoryService = menuCategoryService;
         this.menuCategoryMapper = menuCategoryMapper;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<MenuCategoryOutputDTO>> getAllCategories() {
-        return ResponseEntity.ok(menuCategoryService.getAllCategories());
+    public ResponseEntity<byte[]> getAllCategories(@RequestParam(required = false) Long restaurantId,
+                                                   WebRequest request) {
+        if (request.checkNotModified(menuSnapshotService.currentETag())) {
+            return null;
+        }
+        MenuSnapshotService.MenuSnapshot snapshot = menuSnapshotService.snapshot();
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(menuSnapshotService.eTag(snapshot.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (restaurantId == null) {
+            return ok.body(snapshot.categories());
+        }
+        MenuSnapshotService.RestaurantMenu menu = snapshot.forRestaurant(restaurantId);
+        return menu != null ? ok.body(menu.categories()) : ResponseEntity.notFound().build();
     }
 
     @GetMapping("/list/{id}")
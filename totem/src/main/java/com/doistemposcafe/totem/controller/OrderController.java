@@ -1,16 +1,25 @@
 package com.doistemposcafe.totem.controller;
 
+import com.doistemposcafe.totem.dto.Input.OrderFilterInputDTO;
 import com.doistemposcafe.totem.dto.Input.OrderInputDTO;
+import com.doistemposcafe.totem.dto.Input.StatusTransitionInputDTO;
 import com.doistemposcafe.totem.dto.Output.OrderOutputDTO;
+import com.doistemposcafe.totem.dto.Output.OrderPageOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.OrderMapper;
 import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.service.IdempotencyService;
+import com.doistemposcafe.totem.service.KitchenStreamService;
 import com.doistemposcafe.totem.service.OrderService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -18,11 +27,17 @@ import java.util.List;
 public class OrderController {
     private final OrderService orderService;
     private final OrderMapper orderMapper;
+    private final KitchenStreamService kitchenStreamService;
+    private final IdempotencyService idempotencyService;
 
     public OrderController(OrderService orderService,
-                           OrderMapper orderMapper) {
+                           OrderMapper orderMapper,
+                           KitchenStreamService kitchenStreamService,
+                           IdempotencyService idempotencyService) {
         this.orderService = orderService;
         this.orderMapper = orderMapper;
+        this.kitchenStreamService = kitchenStreamService;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/list")
@@ -31,6 +46,20 @@ public class OrderController {
         return ResponseEntity.ok(orderService.getAllOrders());
     }
 
+    @GetMapping("/page")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<OrderPageOutputDTO> listOrders(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size) {
+        OrderFilterInputDTO filter = new OrderFilterInputDTO(restaurantId, status, userId, from, to);
+        return ResponseEntity.ok(orderService.listOrders(filter, cursor, size));
+    }
+
     @GetMapping("/list/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<OrderOutputDTO> getOrderById(@PathVariable Long id) {
@@ -38,10 +67,20 @@ public class OrderController {
         return order != null ? ResponseEntity.ok(order) : ResponseEntity.notFound().build();
     }
 
+    @GetMapping(value = "/stream/{restaurantId}", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public SseEmitter streamOrders(@PathVariable Long restaurantId,
+                                   @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        return kitchenStreamService.subscribe(restaurantId, lastEventId);
+    }
+
     @PostMapping("/save")
-    public ResponseEntity<OrderOutputDTO> saveOrder(@RequestBody OrderInputDTO inputDTO) {
-        OrderOutputDTO saved = orderService.saveOrder(inputDTO);
-        return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+    public ResponseEntity<OrderOutputDTO> saveOrder(@RequestBody OrderInputDTO inputDTO,
+                                                    @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("orders", idempotencyKey, inputDTO, OrderOutputDTO.class, () -> {
+            OrderOutputDTO saved = orderService.saveOrder(inputDTO);
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        });
     }
 
     @PutMapping("/update/{id}")
@@ -50,6 +89,14 @@ public class OrderController {
         return ResponseEntity.ok(updated);
     }
 
+    @PatchMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<Void> transitionOrderStatus(@PathVariable Long id, @RequestBody StatusTransitionInputDTO inputDTO) {
+        return orderService.transitionStatus(id, inputDTO)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/delete/{id}")
     public ResponseEntity<Void> deleteOrder(@PathVariable Long id) {
         boolean deleted = orderService.deleteOrder(id);
@@ -1,6 +1,7 @@
 package com.doistemposcafe.totem.controller;
 
 import com.doistemposcafe.totem.dto.Input.OrderItemInputDTO;
+import com.doistemposcafe.totem.dto.Input.StatusTransitionInputDTO;
 import com.doistemposcafe.totem.dto.Output.OrderItemOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.OrderItemMapper;
 import com.doistemposcafe.totem.model.Order;
@@ -51,6 +52,14 @@ public class OrderItemController {
         return ResponseEntity.ok(orderItemService.updateItem(dto, id));
     }
 
+    @PatchMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<Void> transitionItemStatus(@PathVariable Long id, @RequestBody StatusTransitionInputDTO inputDTO) {
+        return orderItemService.transitionStatus(id, inputDTO)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
     public ResponseEntity<Void> deleteItem(@PathVariable Long id) {
@@ -1,9 +1,11 @@
 package com.doistemposcafe.totem.controller;
 
 import com.doistemposcafe.totem.dto.Input.PaymentInputDTO;
+import com.doistemposcafe.totem.dto.Input.StatusTransitionInputDTO;
 import com.doistemposcafe.totem.dto.Output.PaymentOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.PaymentMapper;
 import com.doistemposcafe.totem.model.Payment;
+import com.doistemposcafe.totem.service.IdempotencyService;
 import com.doistemposcafe.totem.service.PaymentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -19,10 +21,13 @@ public class PaymentController {
 
     private final PaymentService paymentService;
     private final PaymentMapper paymentMapper;
+    private final IdempotencyService idempotencyService;
 
-    public PaymentController(PaymentService paymentService, PaymentMapper paymentMapper) {
+    public PaymentController(PaymentService paymentService, PaymentMapper paymentMapper,
+                             IdempotencyService idempotencyService) {
         this.paymentService = paymentService;
         this.paymentMapper = paymentMapper;
+        this.idempotencyService = idempotencyService;
     }
 
     @GetMapping("/list")
@@ -39,8 +44,10 @@ public class PaymentController {
     }
 
     @PostMapping("/save")
-    public ResponseEntity<PaymentOutputDTO> savePayment(@RequestBody PaymentInputDTO dto) {
-        return ResponseEntity.status(HttpStatus.CREATED).body(paymentService.savePayment(dto));
+    public ResponseEntity<PaymentOutputDTO> savePayment(@RequestBody PaymentInputDTO dto,
+                                                        @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey) {
+        return idempotencyService.execute("payments", idempotencyKey, dto, PaymentOutputDTO.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(paymentService.savePayment(dto)));
     }
 
     @PutMapping("/update/{id}")
@@ -49,6 +56,14 @@ public class PaymentController {
         return ResponseEntity.ok(paymentService.updatePayment(dto, id));
     }
 
+    @PatchMapping("/{id}/status")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<Void> transitionPaymentStatus(@PathVariable Long id, @RequestBody StatusTransitionInputDTO inputDTO) {
+        return paymentService.transitionStatus(id, inputDTO)
+                ? ResponseEntity.noContent().build()
+                : ResponseEntity.notFound().build();
+    }
+
     @DeleteMapping("/delete/{id}")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Void> deletePayment(@PathVariable Long id) {
@@ -2,14 +2,22 @@ package com.doistemposcafe.totem.controller;
 
 import com.doistemposcafe.totem.dto.Input.ProductInputDTO;
 import com.doistemposcafe.totem.dto.Output.ProductOutputDTO;
+import com.doistemposcafe.totem.dto.Output.SuggestedProductOutputDTO;
+import com.doistemposcafe.totem.dto.Output.TrendingProductOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.ProductMapper;
 import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.service.MenuSnapshotService;
 import com.doistemposcafe.totem.service.ProductService;
+import com.doistemposcafe.totem.service.ProductSuggestionsService;
+import com.doistemposcafe.totem.service.TrendingProductsService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Optional;
@@ -20,15 +28,57 @@ public class ProductController {
 
     private final ProductService productService;
     private final ProductMapper productMapper;
+    private final MenuSnapshotService menuSnapshotService;
+    private final TrendingProductsService trendingProductsService;
+    private final ProductSuggestionsService productSuggestionsService;
 
-    public ProductController(ProductService productService, ProductMapper productMapper) {
+    public ProductController(ProductService productService, ProductMapper productMapper,
+                             MenuSnapshotService menuSnapshotService,
+                             TrendingProductsService trendingProductsService,
+                             ProductSuggestionsService productSuggestionsService) {
         this.productService = productService;
         this.productMapper = productMapper;
+        this.menuSnapshotService = menuSnapshotService;
+        this.trendingProductsService = trendingProductsService;
+        this.productSuggestionsService = productSuggestionsService;
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<ProductOutputDTO>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<byte[]> getAllProducts(@RequestParam(required = false) Long restaurantId,
+                                                 WebRequest request) {
+        if (request.checkNotModified(menuSnapshotService.currentETag())) {
+            return null;
+        }
+        MenuSnapshotService.MenuSnapshot snapshot = menuSnapshotService.snapshot();
+        ResponseEntity.BodyBuilder ok = ResponseEntity.ok()
+                .eTag(menuSnapshotService.eTag(snapshot.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON);
+        if (restaurantId == null) {
+            return ok.body(snapshot.products());
+        }
+        MenuSnapshotService.RestaurantMenu menu = snapshot.forRestaurant(restaurantId);
+        return menu != null ? ok.body(menu.products()) : ResponseEntity.notFound().build();
+    }
+
+    // Shared caches may keep it for as long as the server keeps its own copy
+    @GetMapping("/trending")
+    public ResponseEntity<List<TrendingProductOutputDTO>> getTrending(@RequestParam Long restaurantId,
+                                                                      @RequestParam(defaultValue = "RECENT") String window,
+                                                                      @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(trendingProductsService.getCacheTtl()).cachePublic())
+                .body(trendingProductsService.getTrending(restaurantId, window, limit));
+    }
+
+    // Pairings move slowly, so a short public max-age is harmless
+    @GetMapping("/{id}/suggestions")
+    public ResponseEntity<List<SuggestedProductOutputDTO>> getSuggestions(@PathVariable Long id,
+                                                                          @RequestParam Long restaurantId,
+                                                                          @RequestParam(defaultValue = "5") int limit) {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(productSuggestionsService.getCacheMaxAge()).cachePublic())
+                .body(productSuggestionsService.getSuggestions(restaurantId, id, limit));
     }
 
     @GetMapping("/list/{id}")
@@ -0,0 +1,62 @@
+package com.doistemposcafe.totem.controller;
+
+import com.doistemposcafe.totem.dto.Output.ProductSalesOutputDTO;
+import com.doistemposcafe.totem.dto.Output.SalesReportOutputDTO;
+import com.doistemposcafe.totem.service.SalesReportService;
+import com.doistemposcafe.totem.service.SalesRollupService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/reports")
+public class ReportController {
+
+    private final SalesReportService salesReportService;
+    private final SalesRollupService salesRollupService;
+
+    public ReportController(SalesReportService salesReportService, SalesRollupService salesRollupService) {
+        this.salesReportService = salesReportService;
+        this.salesRollupService = salesRollupService;
+    }
+
+    @GetMapping("/sales")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<List<SalesReportOutputDTO>> getSales(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(defaultValue = "DAY") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) List<String> groupBy) {
+        return ResponseEntity.ok(salesReportService.getSales(restaurantId, period, from, to, groupBy));
+    }
+
+    @GetMapping("/products")
+    @PreAuthorize("hasAnyRole('MANAGER', 'ADMIN')")
+    public ResponseEntity<List<ProductSalesOutputDTO>> getTopProducts(
+            @RequestParam(required = false) Long restaurantId,
+            @RequestParam(defaultValue = "DAY") String period,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(salesReportService.getTopProducts(restaurantId, period, from, to, limit));
+    }
+
+    // Recalculation runs in the background; the response only says how many hours were queued
+    @PostMapping("/rollups/backfill")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Integer>> backfill(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return ResponseEntity.accepted().body(Map.of("queuedHours", salesRollupService.backfill(from, to)));
+    }
+}
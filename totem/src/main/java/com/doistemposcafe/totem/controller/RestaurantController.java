@@ -4,11 +4,15 @@ import com.doistemposcafe.totem.dto.Input.RestaurantInputDTO;
 import com.doistemposcafe.totem.dto.Output.RestaurantOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.RestaurantMapper;
 import com.doistemposcafe.totem.model.Restaurant;
+import com.doistemposcafe.totem.service.MenuSnapshotService;
 import com.doistemposcafe.totem.service.RestaurantService;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -18,16 +22,27 @@ public class RestaurantController {
 
     private final RestaurantService restaurantService;
     private final RestaurantMapper restaurantMapper;
+    private final MenuSnapshotService menuSnapshotService;
 
     public RestaurantController(RestaurantService restaurantService,
-                                RestaurantMapper restaurantMapper) {
+                                RestaurantMapper restaurantMapper,
+                                MenuSnapshotService menuSnapshotService) {
         this.restaurantService = restaurantService;
         this.restaurantMapper = restaurantMapper;
+        this.menuSnapshotService = menuSnapshotService;
     }
 
     @GetMapping("/list")
-    public ResponseEntity<List<RestaurantOutputDTO>> getAllRestaurants() {
-        return ResponseEntity.ok(restaurantService.getRestaurants());
+    public ResponseEntity<byte[]> getAllRestaurants(WebRequest request) {
+        if (request.checkNotModified(menuSnapshotService.currentETag())) {
+            return null;
+        }
+        MenuSnapshotService.MenuSnapshot snapshot = menuSnapshotService.snapshot();
+        return ResponseEntity.ok()
+                .eTag(menuSnapshotService.eTag(snapshot.version()))
+                .cacheControl(CacheControl.noCache())
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(snapshot.restaurants());
     }
 
     @GetMapping("/list/{id}")
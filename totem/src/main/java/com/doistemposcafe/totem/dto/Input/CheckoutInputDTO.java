@@ -0,0 +1,14 @@
+package com.doistemposcafe.totem.dto.Input;
+
+import java.util.List;
+
+public record CheckoutInputDTO(
+        String name,
+        String description,
+        String consumption_method,
+        Long userId,
+        Long restaurantId,
+        String paymentMethod,
+        String paymentStatus,
+        String transactionId,
+        List<CheckoutItemInputDTO> items) {}
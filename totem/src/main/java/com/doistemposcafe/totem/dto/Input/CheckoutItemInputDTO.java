@@ -0,0 +1,5 @@
+package com.doistemposcafe.totem.dto.Input;
+
+public record CheckoutItemInputDTO(
+        Long productId,
+        Integer quantity) {}
@@ -0,0 +1,11 @@
+package com.doistemposcafe.totem.dto.Input;
+
+import java.time.LocalDateTime;
+
+// Every field is optional; from is inclusive and to is exclusive
+public record OrderFilterInputDTO(
+        Long restaurantId,
+        String status,
+        Long userId,
+        LocalDateTime from,
+        LocalDateTime to) {}
@@ -12,4 +12,5 @@ public record OrderInputDTO(
         Long userId,
         LocalDateTime createdAt,
         LocalDateTime updatedAt,
-        Long restaurantId) {}
+        Long restaurantId,
+        Long version) {}
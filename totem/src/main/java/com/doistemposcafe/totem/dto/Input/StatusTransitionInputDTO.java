@@ -0,0 +1,6 @@
+package com.doistemposcafe.totem.dto.Input;
+
+// expected is the status the client last saw; the change only applies if it still holds
+public record StatusTransitionInputDTO(
+        String expected,
+        String target) {}
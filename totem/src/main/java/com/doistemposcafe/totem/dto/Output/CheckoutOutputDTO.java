@@ -0,0 +1,8 @@
+package com.doistemposcafe.totem.dto.Output;
+
+import java.util.List;
+
+public record CheckoutOutputDTO(
+        OrderOutputDTO order,
+        List<OrderItemOutputDTO> items,
+        PaymentOutputDTO payment) {}
@@ -0,0 +1,28 @@
+package com.doistemposcafe.totem.dto.Output;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+// "Today" starts at midnight in the server time zone; revenue counts COMPLETED payments only
+public record DashboardSummaryOutputDTO(
+        long products,
+        long menuCategories,
+        long restaurants,
+        long users,
+        long ordersToday,
+        long paymentsToday,
+        double revenueToday,
+        Map<String, Long> openOrdersByStatus,
+        List<RecentOrder> recentOrders,
+        LocalDateTime generatedAt) {
+
+    public record RecentOrder(
+            Long id,
+            String name,
+            String status,
+            String consumptionMethod,
+            double total,
+            Long restaurantId,
+            LocalDateTime createdAt) {}
+}
@@ -0,0 +1,15 @@
+package com.doistemposcafe.totem.dto.Output;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+// restaurantId is null when the counters are summed over every restaurant
+public record LiveCountersOutputDTO(
+        Long restaurantId,
+        LocalDate day,
+        long ordersToday,
+        long paymentsToday,
+        double revenueToday,
+        Map<String, Long> openOrdersByStatus,
+        LocalDateTime rebuiltAt) {}
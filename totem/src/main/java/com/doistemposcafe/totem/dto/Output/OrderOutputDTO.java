@@ -13,4 +13,5 @@ public record OrderOutputDTO(
         LocalDateTime createdAt,
         LocalDateTime updatedAt,
         Long userId,
-        Long restaurantId) {}
\ No newline at end of file
+        Long restaurantId,
+        long version) {}
\ No newline at end of file
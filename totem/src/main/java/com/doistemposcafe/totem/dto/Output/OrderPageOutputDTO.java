@@ -0,0 +1,8 @@
+package com.doistemposcafe.totem.dto.Output;
+
+import java.util.List;
+
+// nextCursor is null on the last page
+public record OrderPageOutputDTO(
+        List<OrderOutputDTO> items,
+        String nextCursor) {}
@@ -0,0 +1,9 @@
+package com.doistemposcafe.totem.dto.Output;
+
+// name is null when the product has been deleted since it was sold
+public record ProductSalesOutputDTO(
+        Long productId,
+        String name,
+        long orders,
+        long units,
+        double revenue) {}
@@ -0,0 +1,13 @@
+package com.doistemposcafe.totem.dto.Output;
+
+import java.time.LocalDateTime;
+
+// consumptionMethod and paymentMethod are null unless the report was grouped by them
+public record SalesReportOutputDTO(
+        LocalDateTime bucketStart,
+        String consumptionMethod,
+        String paymentMethod,
+        long orders,
+        long units,
+        double revenue,
+        double averageTicket) {}
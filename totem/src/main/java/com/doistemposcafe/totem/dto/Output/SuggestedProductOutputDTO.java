@@ -0,0 +1,9 @@
+package com.doistemposcafe.totem.dto.Output;
+
+// orders: orders with both products; confidence: share of the anchor's orders that have this one;
+// lift: confidence over this product's overall share (above 1 means bought together more than chance)
+public record SuggestedProductOutputDTO(
+        Long productId,
+        int orders,
+        double confidence,
+        double lift) {}
@@ -0,0 +1,6 @@
+package com.doistemposcafe.totem.dto.Output;
+
+// score is the time-decayed quantity ordered; the kiosk joins productId with /api/products/list
+public record TrendingProductOutputDTO(
+        Long productId,
+        double score) {}
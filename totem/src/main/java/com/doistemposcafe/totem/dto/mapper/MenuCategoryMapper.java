@@ -4,6 +4,7 @@ import com.doistemposcafe.totem.dto.Input.MenuCategoryInputDTO;
 import com.doistemposcafe.totem.dto.Output.MenuCategoryOutputDTO;
 import com.doistemposcafe.totem.model.MenuCategory;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 import java.util.List;
@@ -11,6 +12,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface MenuCategoryMapper {
     MenuCategory toEntity(MenuCategoryInputDTO dto);
+    @Mapping(target = "restaurantId", source = "restaurant.id")
     MenuCategoryOutputDTO toOutputDTO(MenuCategory entity);
     List<MenuCategoryOutputDTO> toOutputDTOs(List<MenuCategory> menuCategories);
 }
\ No newline at end of file
@@ -11,6 +11,7 @@ import java.util.List;
 
 @Mapper(componentModel = "spring")
 public interface OrderMapper {
+    @Mapping(target = "version", ignore = true)
     Order toEntity(OrderInputDTO dto);
     @Mapping(source = "user.id", target = "userId") // Maps entity.getUser().getId() to dto.setUserId()
     @Mapping(source = "restaurant.id", target = "restaurantId")
@@ -6,6 +6,7 @@ import com.doistemposcafe.totem.dto.Output.RestaurantOutputDTO;
 import com.doistemposcafe.totem.model.Order;
 import com.doistemposcafe.totem.model.Restaurant;
 import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
 import org.mapstruct.factory.Mappers;
 
 import java.util.List;
@@ -13,6 +14,7 @@ import java.util.List;
 @Mapper(componentModel = "spring")
 public interface RestaurantMapper {
     Restaurant toEntity(RestaurantInputDTO dto);
+    @Mapping(target = "managerId", source = "manager.id")
     RestaurantOutputDTO toOutputDTO(Restaurant restaurant);
     List<RestaurantOutputDTO> toOutputDTOs(List<Restaurant> restaurants);
 }
@@ -3,6 +3,8 @@ package com.doistemposcafe.totem.exception;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.AccessDeniedException;
@@ -73,6 +75,30 @@ public class GlobalExceptionHandler {
         return buildError(HttpStatus.BAD_REQUEST, ex.getMessage(), request);
     }
 
+    // 409 - Conflict
+    @ExceptionHandler(StatusConflictException.class)
+    public ResponseEntity<ErrorDetails> handleStatusConflictException(StatusConflictException ex, WebRequest request) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    // 409 - Conflict
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDetails> handleOptimisticLockingFailureException(Exception ex, WebRequest request) {
+        return buildError(HttpStatus.CONFLICT, "O registro foi alterado por outra requisição. Recarregue e tente novamente.", request);
+    }
+
+    // 409 - Conflict
+    @ExceptionHandler(InsufficientStockException.class)
+    public ResponseEntity<ErrorDetails> handleInsufficientStockException(InsufficientStockException ex, WebRequest request) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
+    // 409 - Conflict
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public ResponseEntity<ErrorDetails> handleIdempotencyConflictException(IdempotencyConflictException ex, WebRequest request) {
+        return buildError(HttpStatus.CONFLICT, ex.getMessage(), request);
+    }
+
     // 401 - Unauthorized
     @ExceptionHandler(TokenExpiredException.class)
     public ResponseEntity<ErrorDetails> handleTokenExpiredException(TokenExpiredException ex, WebRequest request) {
@@ -84,4 +110,22 @@ public class GlobalExceptionHandler {
     public ResponseEntity<ErrorDetails> handleJwtException(JwtException ex, WebRequest request) {
         return buildError(HttpStatus.UNAUTHORIZED, ex.getMessage(), request);
     }
+
+    // 429 - Too Many Requests
+    @ExceptionHandler(LoginThrottledException.class)
+    public ResponseEntity<ErrorDetails> handleLoginThrottledException(LoginThrottledException ex, WebRequest request) {
+        return withRetryAfter(buildError(HttpStatus.TOO_MANY_REQUESTS, ex.getMessage(), request), ex.getRetryAfterSeconds());
+    }
+
+    // 503 - Service Unavailable
+    @ExceptionHandler(PasswordHashingBusyException.class)
+    public ResponseEntity<ErrorDetails> handlePasswordHashingBusyException(PasswordHashingBusyException ex, WebRequest request) {
+        return withRetryAfter(buildError(HttpStatus.SERVICE_UNAVAILABLE, ex.getMessage(), request), 1);
+    }
+
+    private ResponseEntity<ErrorDetails> withRetryAfter(ResponseEntity<ErrorDetails> error, long seconds) {
+        return ResponseEntity.status(error.getStatusCode())
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(seconds))
+                .body(error.getBody());
+    }
 }
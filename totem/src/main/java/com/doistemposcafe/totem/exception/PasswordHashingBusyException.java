@@ -0,0 +1,7 @@
+package com.doistemposcafe.totem.exception;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
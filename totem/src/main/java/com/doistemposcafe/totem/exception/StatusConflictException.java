@@ -0,0 +1,7 @@
+package com.doistemposcafe.totem.exception;
+
+public class StatusConflictException extends RuntimeException {
+    public StatusConflictException(String message) {
+        super(message);
+    }
+}
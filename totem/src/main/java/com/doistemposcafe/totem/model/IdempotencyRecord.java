@@ -0,0 +1,49 @@
+package com.doistemposcafe.totem.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "idempotency_key",
+        uniqueConstraints = @UniqueConstraint(columnNames = {"scope", "idempotency_key"}))
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "idempotency_key_id_seq")
+    @SequenceGenerator(name = "idempotency_key_id_seq", sequenceName = "idempotency_key_id_seq", allocationSize = 50)
+    private Long id;
+
+    // Endpoint the key belongs to, e.g. "orders" or "payments"
+    @Column(nullable = false)
+    private String scope;
+
+    @Column(name = "idempotency_key", nullable = false)
+    private String idempotencyKey;
+
+    // SHA-256 of the request body, to reject a key reused with a different payload
+    @Column(name = "request_hash", nullable = false)
+    private String requestHash;
+
+    @Column(name = "status_code", nullable = false)
+    private int statusCode;
+
+    @Column(name = "response_body")
+    private String responseBody;
+
+    @Column(name = "created_at", updatable = false)
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    public IdempotencyRecord(String scope, String idempotencyKey, String requestHash, int statusCode, String responseBody) {
+        this.scope = scope;
+        this.idempotencyKey = idempotencyKey;
+        this.requestHash = requestHash;
+        this.statusCode = statusCode;
+        this.responseBody = responseBody;
+    }
+}
@@ -16,7 +16,8 @@ import java.util.List;
 @NoArgsConstructor
 public class Manager {
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "manager_id_seq")
+    @SequenceGenerator(name = "manager_id_seq", sequenceName = "manager_id_seq", allocationSize = 50)
     private long id;
     private String name;
     private String email;
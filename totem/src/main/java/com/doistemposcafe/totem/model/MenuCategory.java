@@ -18,7 +18,8 @@ import java.util.List;
 @Table(name = "menu_category")
 public class MenuCategory {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "menu_category_id_seq")
+    @SequenceGenerator(name = "menu_category_id_seq", sequenceName = "menu_category_id_seq", allocationSize = 50)
     private long id;
     private String name;
 
@@ -32,7 +33,7 @@ public class MenuCategory {
     private LocalDateTime updated_at;
 
     // Belongs to a restaurant
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     private Restaurant restaurant;
 
     // Has many products
@@ -17,13 +17,15 @@ import java.util.List;
 @NoArgsConstructor
 public class Order {
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_id_seq")
+    @SequenceGenerator(name = "orders_id_seq", sequenceName = "orders_id_seq", allocationSize = 50)
     private long id;
     private String name;
     private String description;
     private double price;
     private double total;
-    private String status;
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
     private String consumption_method;
     @Column(updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
@@ -32,6 +34,9 @@ public class Order {
     @Temporal(TemporalType.TIMESTAMP)
     @UpdateTimestamp
     private LocalDateTime updatedAt;
+    // Optimistic lock: concurrent full updates fail instead of overwriting each other
+    @Version
+    private long version;
     // An order belongs to a user
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
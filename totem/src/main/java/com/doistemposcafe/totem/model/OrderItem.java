@@ -15,12 +15,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class OrderItem {
     @Id
-    @GeneratedValue(strategy = jakarta.persistence.GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "orders_product_id_seq")
+    @SequenceGenerator(name = "orders_product_id_seq", sequenceName = "orders_product_id_seq", allocationSize = 50)
     private long id;
     private String name;
     private double price;
     private int quantity;
-    private String status;
+    @Enumerated(EnumType.STRING)
+    private OrderItemStatus status;
 
     @Column(updatable = false)
     @Temporal(TemporalType.TIMESTAMP)
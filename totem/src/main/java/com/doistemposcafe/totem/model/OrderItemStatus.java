@@ -0,0 +1,18 @@
+package com.doistemposcafe.totem.model;
+
+public enum OrderItemStatus {
+    PENDING,
+    PREPARING,
+    READY,
+    DELIVERED,
+    CANCELLED;
+
+    public boolean canTransitionTo(OrderItemStatus target) {
+        return switch (this) {
+            case PENDING -> target == PREPARING || target == CANCELLED;
+            case PREPARING -> target == READY || target == CANCELLED;
+            case READY -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+}
@@ -0,0 +1,38 @@
+package com.doistemposcafe.totem.model;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public enum OrderStatus {
+    PENDING,
+    CONFIRMED,
+    PREPARING,
+    READY,
+    DELIVERED,
+    CANCELLED;
+
+    /** Status em aberto (isOpen), na ordem do enum: o painel e os contadores ao vivo partem desta lista. */
+    public static final List<OrderStatus> OPEN = Arrays.stream(values())
+            .filter(OrderStatus::isOpen)
+            .toList();
+    // Literal IN list in enum order, so Postgres can match the partial index idx_orders_open_status
+    public static final String OPEN_SQL_LIST = OPEN.stream()
+            .map(status -> "'" + status.name() + "'")
+            .collect(Collectors.joining(", ", "(", ")"));
+
+    public boolean canTransitionTo(OrderStatus target) {
+        return switch (this) {
+            case PENDING -> target == CONFIRMED || target == PREPARING || target == CANCELLED;
+            case CONFIRMED -> target == PREPARING || target == CANCELLED;
+            case PREPARING -> target == READY || target == CANCELLED;
+            case READY -> target == DELIVERED;
+            case DELIVERED, CANCELLED -> false;
+        };
+    }
+
+    // Still moving through the kitchen; DELIVERED and CANCELLED are final
+    public boolean isOpen() {
+        return this != DELIVERED && this != CANCELLED;
+    }
+}
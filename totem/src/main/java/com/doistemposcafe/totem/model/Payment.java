@@ -13,19 +13,24 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 public class Payment {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "payment_id_seq")
+    @SequenceGenerator(name = "payment_id_seq", sequenceName = "payment_id_seq", allocationSize = 50)
     private long id;
     private String method;
     private double amount;
-    private String status;
+    @Enumerated(EnumType.STRING)
+    private PaymentStatus status;
     @Column(name = "transaction_id")
     private String transactionId;
     @Column(name = "payment_date")
     private LocalDateTime paymentDate;  // Mudança aqui
 
     // Relacionamento com Order (supondo que um pagamento tem um pedido)
+    // Order points back here: keeping both sides in hashCode/toString recurses until the stack overflows
     @OneToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "order_id")
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Order order;
     
     // Belongs to a user
@@ -0,0 +1,18 @@
+package com.doistemposcafe.totem.model;
+
+public enum PaymentStatus {
+    PENDING,
+    COMPLETED,
+    FAILED,
+    REFUNDED;
+
+    public boolean canTransitionTo(PaymentStatus target) {
+        return switch (this) {
+            case PENDING -> target == COMPLETED || target == FAILED;
+            // A failed payment can be retried
+            case FAILED -> target == PENDING || target == COMPLETED;
+            case COMPLETED -> target == REFUNDED;
+            case REFUNDED -> false;
+        };
+    }
+}
@@ -0,0 +1,25 @@
+package com.doistemposcafe.totem.model;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+public enum ReportPeriod {
+    HOUR(Duration.ofDays(31)),
+    DAY(Duration.ofDays(366));
+
+    // Longest range a report may ask for at this granularity
+    private final Duration maxRange;
+
+    ReportPeriod(Duration maxRange) {
+        this.maxRange = maxRange;
+    }
+
+    public Duration getMaxRange() {
+        return maxRange;
+    }
+
+    public LocalDateTime truncate(LocalDateTime time) {
+        return time.truncatedTo(this == HOUR ? ChronoUnit.HOURS : ChronoUnit.DAYS);
+    }
+}
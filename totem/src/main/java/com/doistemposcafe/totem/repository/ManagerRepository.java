@@ -2,6 +2,9 @@ package com.doistemposcafe.totem.repository;
 
 import com.doistemposcafe.totem.model.Manager;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -9,4 +12,8 @@ import java.util.Optional;
 @Repository
 public interface ManagerRepository extends JpaRepository<Manager, Long> {
     Optional<Manager> findByEmail(String email);
+
+    @Modifying
+    @Query("UPDATE Manager m SET m.password = :password WHERE m.email = :email")
+    int updatePassword(@Param("email") String email, @Param("password") String password);
 }
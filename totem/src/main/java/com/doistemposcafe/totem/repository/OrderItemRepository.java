@@ -2,8 +2,22 @@ package com.doistemposcafe.totem.repository;
 
 import com.doistemposcafe.totem.model.OrderItem;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface OrderItemRepository extends JpaRepository<OrderItem, Long> {
-    // Custom query methods can be defined here if needed
-    // For example, you can add methods to find order items by order ID or product ID
+
+    // Compare-and-set on status without loading the item; returns [orderId, restaurantId], or nothing if it did not match
+    @Query(value = "UPDATE orders_product op SET status = :target, updated_at = CURRENT_TIMESTAMP FROM orders o " +
+            "WHERE op.id = :id AND op.status = :expected AND o.id = op.order_id " +
+            "RETURNING CAST(op.order_id AS BIGINT), CAST(o.restaurant_id AS BIGINT)", nativeQuery = true)
+    List<Object[]> transitionStatus(@Param("id") Long id, @Param("expected") String expected, @Param("target") String target);
+
+    // Cancels every item of the order that is not cancelled yet; returns the ids it changed
+    @Query(value = "UPDATE orders_product SET status = 'CANCELLED', updated_at = CURRENT_TIMESTAMP " +
+            "WHERE order_id = :orderId AND status IS DISTINCT FROM 'CANCELLED' " +
+            "RETURNING CAST(id AS BIGINT)", nativeQuery = true)
+    List<Long> cancelByOrderId(@Param("orderId") Long orderId);
 }
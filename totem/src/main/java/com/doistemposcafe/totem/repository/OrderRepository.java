@@ -2,8 +2,15 @@ package com.doistemposcafe.totem.repository;
 
 import com.doistemposcafe.totem.model.Order;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
-public interface OrderRepository extends JpaRepository<Order, Long> {
-    // Custom query methods can be defined here if needed
-    // For example, you can add methods to find orders by customer ID or order status
+import java.util.List;
+
+public interface OrderRepository extends JpaRepository<Order, Long>, OrderRepositoryCustom {
+
+    // Compare-and-set on status without loading the order; returns the restaurant id, or nothing if it did not match
+    @Query(value = "UPDATE orders SET status = :target, updated_at = CURRENT_TIMESTAMP, version = version + 1 " +
+            "WHERE id = :id AND status = :expected RETURNING CAST(restaurant_id AS BIGINT)", nativeQuery = true)
+    List<Long> transitionStatus(@Param("id") Long id, @Param("expected") String expected, @Param("target") String target);
 }
@@ -0,0 +1,16 @@
+package com.doistemposcafe.totem.repository;
+
+import com.doistemposcafe.totem.dto.Input.OrderFilterInputDTO;
+import com.doistemposcafe.totem.dto.Output.OrderOutputDTO;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface OrderRepositoryCustom {
+
+    /**
+     * Pedidos do mais recente para o mais antigo, a partir da chave (afterCreatedAt, afterId)
+     * exclusiva; sem chave, começa do topo. Projeta direto no DTO, sem carregar entidades.
+     */
+    List<OrderOutputDTO> findPage(OrderFilterInputDTO filter, LocalDateTime afterCreatedAt, Long afterId, int limit);
+}
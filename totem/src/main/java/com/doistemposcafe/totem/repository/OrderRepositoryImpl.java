@@ -0,0 +1,65 @@
+package com.doistemposcafe.totem.repository;
+
+import com.doistemposcafe.totem.dto.Input.OrderFilterInputDTO;
+import com.doistemposcafe.totem.dto.Output.OrderOutputDTO;
+import com.doistemposcafe.totem.model.OrderStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Monta o JPQL só com os filtros informados, em vez de "(:x is null or ...)", para que o
+ * Postgres planeje cada combinação contra o índice (…, created_at DESC, id DESC) certo.
+ */
+public class OrderRepositoryImpl implements OrderRepositoryCustom {
+
+    private static final String SELECT = "select new com.doistemposcafe.totem.dto.Output.OrderOutputDTO("
+            + "o.id, o.name, o.description, cast(o.status as String), o.consumption_method, o.total, o.price, "
+            + "o.createdAt, o.updatedAt, o.user.id, o.restaurant.id, o.version) from Order o where 1 = 1";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<OrderOutputDTO> findPage(OrderFilterInputDTO filter, LocalDateTime afterCreatedAt, Long afterId, int limit) {
+        StringBuilder jpql = new StringBuilder(SELECT);
+        Map<String, Object> params = new HashMap<>();
+
+        if (filter.restaurantId() != null) {
+            jpql.append(" and o.restaurant.id = :restaurantId");
+            params.put("restaurantId", filter.restaurantId());
+        }
+        if (filter.status() != null) {
+            jpql.append(" and o.status = :status");
+            params.put("status", OrderStatus.valueOf(filter.status()));
+        }
+        if (filter.userId() != null) {
+            jpql.append(" and o.user.id = :userId");
+            params.put("userId", filter.userId());
+        }
+        if (filter.from() != null) {
+            jpql.append(" and o.createdAt >= :from");
+            params.put("from", filter.from());
+        }
+        if (filter.to() != null) {
+            jpql.append(" and o.createdAt < :to");
+            params.put("to", filter.to());
+        }
+        if (afterCreatedAt != null && afterId != null) {
+            // Row-value comparison: Postgres starts the index scan at the cursor instead of filtering every newer row
+            jpql.append(" and (o.createdAt, o.id) < (:afterCreatedAt, :afterId)");
+            params.put("afterCreatedAt", afterCreatedAt);
+            params.put("afterId", afterId);
+        }
+        jpql.append(" order by o.createdAt desc, o.id desc");
+
+        TypedQuery<OrderOutputDTO> query = entityManager.createQuery(jpql.toString(), OrderOutputDTO.class);
+        params.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
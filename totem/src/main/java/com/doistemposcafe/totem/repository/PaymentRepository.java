@@ -2,8 +2,18 @@ package com.doistemposcafe.totem.repository;
 
 import com.doistemposcafe.totem.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
 
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    // Custom query methods can be defined here if needed
-    // For example, you can add methods to find payments by user ID or status
+
+    // Compare-and-set on status without loading the payment;
+    // returns [orderId, restaurantId, amount, paymentDate], or nothing if it did not match
+    @Query(value = "UPDATE payment p SET status = :target FROM orders o " +
+            "WHERE p.id = :id AND p.status = :expected AND o.id = p.order_id " +
+            "RETURNING CAST(p.order_id AS BIGINT), CAST(o.restaurant_id AS BIGINT), p.amount, p.payment_date",
+            nativeQuery = true)
+    List<Object[]> transitionStatus(@Param("id") Long id, @Param("expected") String expected, @Param("target") String target);
 }
@@ -2,7 +2,19 @@ package com.doistemposcafe.totem.repository;
 
 import com.doistemposcafe.totem.model.Product;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 public interface ProductRepository extends JpaRepository<Product, Long> {
 public Product findByName(String name);
+
+    // Guarded decrement: 0 rows updated means not enough stock, without SELECT ... FOR UPDATE
+    @Modifying
+    @Query("UPDATE Product p SET p.amount = p.amount - :quantity WHERE p.id = :id AND p.amount >= :quantity")
+    int reserveStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.amount = p.amount + :quantity WHERE p.id = :id AND p.amount IS NOT NULL")
+    int releaseStock(@Param("id") Long id, @Param("quantity") int quantity);
 }
@@ -0,0 +1,65 @@
+package com.doistemposcafe.totem.security;
+
+import com.doistemposcafe.totem.exception.PasswordHashingBusyException;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * BCrypt executado no passwordHashExecutor, um pool limitado ao número de núcleos, para que uma
+ * rajada de logins não ocupe a CPU das requisições de pedido. Com a fila do pool cheia a chamada
+ * falha na hora com PasswordHashingBusyException (503). upgradeEncoding aponta os hashes com custo
+ * menor que o configurado, que o DaoAuthenticationProvider regrava no próximo login.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+    private final BCryptPasswordEncoder bcrypt;
+    private final AsyncTaskExecutor executor;
+
+    public BoundedPasswordEncoder(int cost, AsyncTaskExecutor executor) {
+        this.bcrypt = new BCryptPasswordEncoder(cost);
+        this.executor = executor;
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> bcrypt.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> bcrypt.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        // Only reads the cost from the hash prefix; no need to go through the pool
+        return bcrypt.upgradeEncoding(encodedPassword);
+    }
+
+    private <T> T run(Callable<T> hashing) {
+        Future<T> future;
+        try {
+            future = executor.submit(hashing);
+        } catch (TaskRejectedException e) {
+            throw new PasswordHashingBusyException("Muitas autenticações em andamento. Tente novamente em instantes.");
+        }
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrompido aguardando o hash da senha", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -4,7 +4,9 @@ import com.doistemposcafe.totem.model.Manager;
 import com.doistemposcafe.totem.model.User;
 import com.doistemposcafe.totem.repository.ManagerRepository;
 import com.doistemposcafe.totem.repository.UserRepository;
+import jakarta.transaction.Transactional;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
@@ -12,7 +14,7 @@ import org.springframework.stereotype.Service;
 import java.util.Optional;
 
 @Service
-public class CustomUserDetails implements UserDetailsService {
+public class CustomUserDetails implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
     private final ManagerRepository managerRepository;
@@ -29,6 +31,19 @@ public class CustomUserDetails implements UserDetailsService {
                 .or(() -> managerRepository.findByEmail(username).map(UserDetailsImpl::fromManager))
                 .orElseThrow(() -> new UsernameNotFoundException("Usuário não encontrado"));
     }
+
+    /**
+     * Grava o novo hash da mesma senha (custo BCrypt atualizado). A senha não muda, então tokens
+     * e caches do usuário continuam válidos.
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        if (userRepository.updatePassword(user.getUsername(), newPassword) == 0) {
+            managerRepository.updatePassword(user.getUsername(), newPassword);
+        }
+        return loadUserByUsername(user.getUsername());
+    }
 }
 
 
@@ -1,7 +1,11 @@
 package com.doistemposcafe.totem.security;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -18,6 +22,37 @@ public class Jwt {
    private String SECRET;
     @Value("${jwt.expiration.time}")
     private long EXPIRATION_TIME; // 10 hours
+    @Value("${security.jwt.stateless:false}")
+    private boolean stateless;
+    @Value("${security.jwt.stateless-expiration-time:900000}")
+    private long STATELESS_EXPIRATION_TIME; // 15 minutes
+
+    private final VerifiedTokenCache verifiedTokens;
+
+    private Algorithm algorithm;
+    private JWTVerifier verifier;
+
+    public Jwt(VerifiedTokenCache verifiedTokens) {
+        this.verifiedTokens = verifiedTokens;
+    }
+
+    @PostConstruct
+    void init() {
+        algorithm = Algorithm.HMAC256(SECRET);
+        verifier = JWT.require(algorithm).build();
+    }
+
+    public boolean isStateless() {
+        return stateless;
+    }
+
+    /**
+     * Tempo de vida dos tokens emitidos; no modo stateless é bem mais curto,
+     * já que o token passa a ser a única fonte das authorities.
+     */
+    public long getExpirationTime() {
+        return stateless ? STATELESS_EXPIRATION_TIME : EXPIRATION_TIME;
+    }
 
     public String generateToken(UserDetails userDetails) {
 
@@ -26,21 +61,35 @@ public class Jwt {
                 .withClaim("authorities", userDetails.getAuthorities().stream()
                         .map(GrantedAuthority::getAuthority)
                         .collect(Collectors.toList()))
-                .withExpiresAt(new Date(System.currentTimeMillis() + EXPIRATION_TIME))
-                .sign(Algorithm.HMAC256(SECRET));
+                .withIssuedAt(new Date())
+                .withExpiresAt(new Date(System.currentTimeMillis() + getExpirationTime()))
+                .sign(algorithm);
     }
 
-    public String extractEmail(String token) {
-        return JWT.decode(token).getSubject();
+    /**
+     * Verifica assinatura HMAC e expiração do token. Tokens verificados recentemente
+     * vêm do VerifiedTokenCache sem novo parse nem HMAC.
+     * @throws JWTVerificationException se o token for inválido ou estiver expirado.
+     */
+    public DecodedJWT verify(String token) {
+        DecodedJWT decoded = verifiedTokens.get(token);
+        if (decoded == null) {
+            decoded = verifier.verify(token);
+            verifiedTokens.put(token, decoded);
+        }
+        return decoded;
     }
 
-    public boolean isTokenExpired(String token) {
-        return JWT.decode(token).getExpiresAt().before(new Date());
+    public long extractIssuedAt(DecodedJWT decoded) {
+        return decoded.getIssuedAt() != null ? decoded.getIssuedAt().getTime() : 0L;
     }
 
-    public boolean validateToken(String token, UserDetails userDetails) {
-        String email = extractEmail(token);
-        return (email.equals(userDetails.getUsername()) && !isTokenExpired(token));
+    /**
+     * Confere o token já verificado por {@link #verify(String)} contra o usuário carregado.
+     */
+    public boolean validateToken(DecodedJWT decoded, UserDetails userDetails) {
+        return decoded.getSubject().equals(userDetails.getUsername())
+                && decoded.getExpiresAt().after(new Date());
     }
 
     public String getTokenFromRequest(String requestHeader) {
@@ -50,10 +99,8 @@ public class Jwt {
         return null;
     }
 
-    public List<String> extractAuthorities(String token) {
-        return JWT.decode(token)
-                .getClaim("authorities")
-                .asList(String.class);
+    public List<String> extractAuthorities(DecodedJWT decoded) {
+        return decoded.getClaim("authorities").asList(String.class);
     }
 
 
@@ -1,6 +1,10 @@
 package com.doistemposcafe.totem.security;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.doistemposcafe.totem.exception.TokenExpiredException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -30,63 +34,111 @@ public class JwtFilter extends OncePerRequestFilter {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    @Autowired
+    private PrincipalCache principalCache;
+
+    @Autowired
+    private RevokedTokenRegistry revokedTokenRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
 
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
 
-        String authHeader = request.getHeader("Authorization");
-        String token = null;
-        String username = null;
+        String token = jwt.getTokenFromRequest(request.getHeader("Authorization"));
+        if (token == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
 
-        if (authHeader != null && authHeader.startsWith("Bearer ")) {
-            token = authHeader.substring(7);
+        // Only the token handling is timed, not the rest of the chain
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "invalid";
+        try {
+            // Verifica assinatura e expiração uma única vez por requisição
+            DecodedJWT decoded = null;
             try {
-                username = jwt.extractEmail(token); // Extrai o email (username) do token
-            } catch (Exception e) {
-                // Logar erro de JWT inválido/expirado/malformado
-                logger.error("Erro ao extrair username do JWT: " + e.getMessage());
-                // Não precisa lançar exceção aqui, apenas não autenticar
+                decoded = jwt.verify(token);
+            } catch (com.auth0.jwt.exceptions.TokenExpiredException e) {
+                outcome = "expired";
+                // Lança a TokenExpiredException para que o @ControllerAdvice
+                // possa retornar um 401 Unauthorized com uma mensagem adequada.
+                throw new TokenExpiredException("Token expirado");
+            } catch (JWTVerificationException e) {
+                // Token inválido/malformado: apenas não autentica
+                logger.error("Erro ao verificar o JWT: " + e.getMessage());
             }
-        }
 
-        // Se o username foi extraído e não há autenticação no contexto atual
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            try {
-                // 1. Carrega os UserDetails completos usando o UserDetailsService
-                UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
-
-                // 2. Valida o token (expiração e se o email no token corresponde ao UserDetails)
-                if (jwt.validateToken(token, userDetails)) {
-                    // 3. Cria o UsernamePasswordAuthenticationToken passando o UserDetails como principal
-                    UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities() // Use userDetails.getAuthorities()
-                    );
-                    authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-
-                    // 4. Seta o Authentication no SecurityContextHolder
-                    SecurityContextHolder.getContext().setAuthentication(authToken);
-                } else {
-                    // Token inválido (mas não expirado) ou não corresponde ao userDetails
-                    logger.warn("JWT inválido ou não corresponde ao usuário para: " + username);
+            if (decoded != null) {
+                if (SecurityContextHolder.getContext().getAuthentication() == null) {
+                    if (jwt.isStateless()) {
+                        authenticateStateless(decoded, request);
+                    } else {
+                        authenticateWithUserDetails(decoded, request);
+                    }
                 }
-            } catch (UsernameNotFoundException e) {
-                logger.warn("Usuário não encontrado para JWT: " + username);
-            } catch (Exception e) {
-                logger.error("Erro inesperado ao processar JWT para o usuário: " + username, e);
+                outcome = SecurityContextHolder.getContext().getAuthentication() != null ? "authenticated" : "rejected";
+            }
+        } finally {
+            sample.stop(meterRegistry.timer("totem.security.jwt.filter", "outcome", outcome));
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private void authenticateWithUserDetails(DecodedJWT decoded, HttpServletRequest request) {
+        String username = decoded.getSubject();
+        if (username == null) {
+            return;
+        }
+        try {
+            // 1. Carrega os UserDetails (do cache, ou do UserDetailsService na primeira vez)
+            UserDetails userDetails = principalCache.get(username, jwt.extractIssuedAt(decoded),
+                    () -> this.userDetailsService.loadUserByUsername(username));
+
+            // 2. Confere se o email no token corresponde ao UserDetails
+            if (jwt.validateToken(decoded, userDetails)) {
+                // 3. Cria o UsernamePasswordAuthenticationToken passando o UserDetails como principal
+                UsernamePasswordAuthenticationToken authToken = new UsernamePasswordAuthenticationToken(
+                        userDetails, null, userDetails.getAuthorities()
+                );
+                authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+
+                // 4. Seta o Authentication no SecurityContextHolder
+                SecurityContextHolder.getContext().setAuthentication(authToken);
+            } else {
+                logger.warn("JWT não corresponde ao usuário: " + username);
             }
+        } catch (UsernameNotFoundException e) {
+            logger.warn("Usuário não encontrado para JWT: " + username);
+        } catch (Exception e) {
+            logger.error("Erro inesperado ao processar JWT para o usuário: " + username, e);
         }
+    }
 
-        // Tratamento de Token Expirado:
-        // É melhor lançar a exceção de TokenExpiredException para que um @ControllerAdvice
-        // possa capturá-la e retornar um 401 Unauthorized com uma mensagem adequada.
-        // Isso deve ser feito APÓS a tentativa de autenticação, para não bloquear
-        // requisições que não precisam de autenticação.
-        if (token != null && jwt.isTokenExpired(token)) {
-            throw new TokenExpiredException("Token expirado");
+    /**
+     * Modo stateless: o Authentication é montado a partir do subject e da claim
+     * "authorities", sem consultar usuários ou gerentes no banco.
+     */
+    private void authenticateStateless(DecodedJWT decoded, HttpServletRequest request) {
+        String username = decoded.getSubject();
+        if (username == null || revokedTokenRegistry.isRevoked(username, jwt.extractIssuedAt(decoded))) {
+            logger.warn("JWT revogado para: " + username);
+            return;
         }
 
-        filterChain.doFilter(request, response);
+        List<String> claim = jwt.extractAuthorities(decoded);
+        List<GrantedAuthority> authorities = claim == null ? List.of() : claim.stream()
+                .map(SimpleGrantedAuthority::new)
+                .collect(Collectors.toList());
+
+        UserDetails principal = new org.springframework.security.core.userdetails.User(username, "", authorities);
+        UsernamePasswordAuthenticationToken authToken =
+                new UsernamePasswordAuthenticationToken(principal, null, authorities);
+        authToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+        SecurityContextHolder.getContext().setAuthentication(authToken);
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,193 @@
+package com.doistemposcafe.totem.security;
+
+import com.doistemposcafe.totem.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Limita as tentativas de login com token buckets em memória, todos consumidos antes do BCrypt:
+ * por IP, por conta vinda de um IP (account-*) e por conta no total (account-total-*). Um login
+ * certo devolve as fichas da conta, então só senhas erradas pesam contra ela, e tentativas
+ * simultâneas não passam além do que o bucket tem. Quem erra a senha de outra pessoa esgota só
+ * o bucket da conta no próprio IP; para segurar o dono, que entra de outro IP, é preciso manter
+ * vazio o bucket total, errando account-total-refill-per-minute vezes por minuto a partir de
+ * vários IPs. Esse total é o teto da força bruta distribuída contra uma conta.
+ * Uma rajada é recusada (429) sem gastar CPU com hashes.
+ */
+@Component
+public class LoginThrottle {
+
+    private final Map<String, TokenBucket> byIp = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> byAccountAndIp = new ConcurrentHashMap<>();
+    private final Map<String, TokenBucket> byAccount = new ConcurrentHashMap<>();
+    private final boolean enabled;
+    private final int ipCapacity;
+    private final double ipTokensPerNano;
+    private final int accountCapacity;
+    private final double accountTokensPerNano;
+    private final int accountTotalCapacity;
+    private final double accountTotalTokensPerNano;
+    private final Counter ipThrottled;
+    private final Counter accountThrottled;
+    private final Counter accountTotalThrottled;
+
+    public LoginThrottle(MeterRegistry meterRegistry,
+                         @Value("${security.login-throttle.enabled:true}") boolean enabled,
+                         @Value("${security.login-throttle.ip-capacity:60}") int ipCapacity,
+                         @Value("${security.login-throttle.ip-refill-per-minute:120}") int ipRefillPerMinute,
+                         @Value("${security.login-throttle.account-capacity:5}") int accountCapacity,
+                         @Value("${security.login-throttle.account-refill-per-minute:1}") int accountRefillPerMinute,
+                         @Value("${security.login-throttle.account-total-capacity:20}") int accountTotalCapacity,
+                         @Value("${security.login-throttle.account-total-refill-per-minute:10}") int accountTotalRefillPerMinute) {
+        this.enabled = enabled;
+        this.ipCapacity = ipCapacity;
+        this.ipTokensPerNano = perNano(ipRefillPerMinute);
+        this.accountCapacity = accountCapacity;
+        this.accountTokensPerNano = perNano(accountRefillPerMinute);
+        this.accountTotalCapacity = accountTotalCapacity;
+        this.accountTotalTokensPerNano = perNano(accountTotalRefillPerMinute);
+        this.ipThrottled = throttledCounter(meterRegistry, "ip");
+        this.accountThrottled = throttledCounter(meterRegistry, "account");
+        this.accountTotalThrottled = throttledCounter(meterRegistry, "account-total");
+    }
+
+    /**
+     * Consome uma tentativa do IP e da conta; lança LoginThrottledException, sem consumir nada,
+     * se algum dos buckets estiver vazio. Se a senha não estava errada, chame {@link #release}.
+     */
+    public void check(String clientIp, String account) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        String accountKey = normalize(account);
+        // Taken here, not after BCrypt: concurrent guesses must not all see the same token
+        TokenBucket fromIp = byAccountAndIp.computeIfAbsent(accountKey + '|' + clientIp,
+                key -> new TokenBucket(accountCapacity, accountTokensPerNano, now));
+        long wait = fromIp.tryConsume(now);
+        if (wait > 0) {
+            accountThrottled.increment();
+            throw throttled(wait);
+        }
+        TokenBucket total = byAccount.computeIfAbsent(accountKey,
+                key -> new TokenBucket(accountTotalCapacity, accountTotalTokensPerNano, now));
+        wait = total.tryConsume(now);
+        if (wait > 0) {
+            fromIp.refund(now);
+            accountTotalThrottled.increment();
+            throw throttled(wait);
+        }
+        wait = byIp.computeIfAbsent(clientIp, ip -> new TokenBucket(ipCapacity, ipTokensPerNano, now)).tryConsume(now);
+        if (wait > 0) {
+            fromIp.refund(now);
+            total.refund(now);
+            ipThrottled.increment();
+            throw throttled(wait);
+        }
+    }
+
+    /**
+     * Devolve as fichas da conta tomadas em check: a tentativa não era um palpite errado.
+     * A ficha do IP continua gasta.
+     */
+    public void release(String clientIp, String account) {
+        if (!enabled) {
+            return;
+        }
+        long now = System.nanoTime();
+        String accountKey = normalize(account);
+        refund(byAccountAndIp.get(accountKey + '|' + clientIp), now);
+        refund(byAccount.get(accountKey), now);
+    }
+
+    // A bucket that refilled completely behaves exactly like a missing one
+    @Scheduled(fixedDelayString = "${security.login-throttle.cleanup-interval-ms:60000}")
+    public void evictFull() {
+        long now = System.nanoTime();
+        byIp.values().removeIf(bucket -> bucket.isFull(now));
+        byAccountAndIp.values().removeIf(bucket -> bucket.isFull(now));
+        byAccount.values().removeIf(bucket -> bucket.isFull(now));
+    }
+
+    // The bucket may have been evicted as full in the meantime, which is the same as refunded
+    private static void refund(TokenBucket bucket, long now) {
+        if (bucket != null) {
+            bucket.refund(now);
+        }
+    }
+
+    private static LoginThrottledException throttled(long waitNanos) {
+        long retryAfterSeconds = TimeUnit.NANOSECONDS.toSeconds(waitNanos - 1) + 1;
+        return new LoginThrottledException("Muitas tentativas de login. Tente novamente em " + retryAfterSeconds + " s.",
+                retryAfterSeconds);
+    }
+
+    private static String normalize(String account) {
+        return account == null ? "" : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static double perNano(int perMinute) {
+        return perMinute / (double) TimeUnit.MINUTES.toNanos(1);
+    }
+
+    private static Counter throttledCounter(MeterRegistry meterRegistry, String scope) {
+        return Counter.builder("totem.security.login.throttled")
+                .description("Tentativas de login recusadas pelo limite")
+                .tag("scope", scope)
+                .register(meterRegistry);
+    }
+
+    private static final class TokenBucket {
+        private final int capacity;
+        private final double tokensPerNano;
+        private double tokens;
+        private long refilledAt;
+
+        TokenBucket(int capacity, double tokensPerNano, long now) {
+            this.capacity = capacity;
+            this.tokensPerNano = tokensPerNano;
+            this.tokens = capacity;
+            this.refilledAt = now;
+        }
+
+        /** Consome uma ficha; retorna 0 ou, sem fichas, quantos nanos faltam para a próxima. */
+        synchronized long tryConsume(long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return waitNanos();
+        }
+
+        synchronized void refund(long now) {
+            refill(now);
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        synchronized boolean isFull(long now) {
+            refill(now);
+            return tokens >= capacity;
+        }
+
+        private void refill(long now) {
+            // Another thread may have refilled with a later timestamp
+            if (now > refilledAt) {
+                tokens = Math.min(capacity, tokens + (now - refilledAt) * tokensPerNano);
+                refilledAt = now;
+            }
+        }
+
+        private long waitNanos() {
+            return tokensPerNano > 0 ? (long) Math.ceil((1 - tokens) / tokensPerNano) : Long.MAX_VALUE;
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package com.doistemposcafe.totem.security;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache limitado e com TTL dos UserDetails carregados pelo JwtFilter, indexado por
+ * subject + data de emissão do token. Entradas de um usuário são removidas quando
+ * um PrincipalChangedEvent é confirmado.
+ */
+@Component
+public class PrincipalCache {
+
+    private record Key(String username, long issuedAt) {}
+
+    private record Entry(UserDetails userDetails, long expiresAt) {}
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlMillis;
+    private final int maxSize;
+
+    public PrincipalCache(@Value("${security.principal-cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${security.principal-cache.max-size:10000}") int maxSize) {
+        this.ttlMillis = ttlSeconds * 1000;
+        this.maxSize = maxSize;
+    }
+
+    public UserDetails get(String username, long issuedAt, Supplier<UserDetails> loader) {
+        Key key = new Key(username, issuedAt);
+        long now = System.currentTimeMillis();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt() > now) {
+            return entry.userDetails();
+        }
+
+        UserDetails userDetails = loader.get();
+        if (entries.size() >= maxSize) {
+            evict(now);
+        }
+        entries.put(key, new Entry(userDetails, now + ttlMillis));
+        return userDetails;
+    }
+
+    public void invalidate(String username) {
+        entries.keySet().removeIf(key -> key.username().equals(username));
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        invalidate(event.username());
+    }
+
+    private void evict(long now) {
+        entries.values().removeIf(entry -> entry.expiresAt() <= now);
+        int excess = entries.size() - maxSize + 1;
+        if (excess > 0) {
+            // Still full of live entries: drop the ones closest to expiring
+            entries.entrySet().stream()
+                    .sorted(Comparator.comparingLong(e -> e.getValue().expiresAt()))
+                    .limit(Math.max(excess, maxSize / 10))
+                    .map(Map.Entry::getKey)
+                    .toList()
+                    .forEach(entries::remove);
+        }
+    }
+}
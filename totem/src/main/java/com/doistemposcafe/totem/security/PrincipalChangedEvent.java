@@ -0,0 +1,7 @@
+package com.doistemposcafe.totem.security;
+
+/**
+ * Publicado quando dados de autenticação de um usuário ou gerente mudam
+ * (e-mail, senha, role ou exclusão da conta).
+ */
+public record PrincipalChangedEvent(String username) {}
@@ -0,0 +1,41 @@
+package com.doistemposcafe.totem.security;
+
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Lista de revogação em memória usada no modo stateless: tokens emitidos antes da
+ * última alteração de senha, e-mail ou exclusão da conta deixam de ser aceitos.
+ * Cada entrada só precisa viver enquanto um token antigo ainda poderia ser válido.
+ */
+@Component
+public class RevokedTokenRegistry {
+
+    private final Map<String, Long> revokedAt = new ConcurrentHashMap<>();
+    private final Jwt jwt;
+
+    public RevokedTokenRegistry(Jwt jwt) {
+        this.jwt = jwt;
+    }
+
+    public void revoke(String username) {
+        long now = System.currentTimeMillis();
+        revokedAt.put(username, now);
+        revokedAt.values().removeIf(at -> at + jwt.getExpirationTime() < now);
+    }
+
+    public boolean isRevoked(String username, long issuedAt) {
+        Long at = revokedAt.get(username);
+        // iat tem precisão de segundos: um token do mesmo segundo da revogação também é recusado
+        return at != null && issuedAt <= at;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPrincipalChanged(PrincipalChangedEvent event) {
+        revoke(event.username());
+    }
+}
@@ -0,0 +1,55 @@
+package com.doistemposcafe.totem.security;
+
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * LRU pequeno de tokens já verificados, indexado pelo próprio token. Requisições
+ * repetidas do mesmo totem reutilizam o DecodedJWT sem repetir Base64, parse do
+ * JSON e HMAC.
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private final Map<String, DecodedJWT> entries;
+
+    public VerifiedTokenCache(@Value("${security.jwt.verified-cache-size:1024}") int maxSize) {
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, DecodedJWT> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    /**
+     * Retorna o token verificado em cache, ou null se ausente ou já expirado.
+     */
+    public DecodedJWT get(String token) {
+        DecodedJWT decoded;
+        synchronized (entries) {
+            decoded = entries.get(token);
+        }
+        if (decoded == null) {
+            return null;
+        }
+        if (decoded.getExpiresAt() != null && decoded.getExpiresAt().getTime() <= System.currentTimeMillis()) {
+            synchronized (entries) {
+                entries.remove(token);
+            }
+            return null;
+        }
+        return decoded;
+    }
+
+    public void put(String token, DecodedJWT decoded) {
+        // hashCode/equals over the token string are far cheaper than a digest, which cost as much as the HMAC
+        synchronized (entries) {
+            entries.put(token, decoded);
+        }
+    }
+}
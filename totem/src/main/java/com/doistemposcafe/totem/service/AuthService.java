@@ -6,7 +6,9 @@ import com.doistemposcafe.totem.dto.mapper.UserMapper;
 import com.doistemposcafe.totem.model.User;
 import com.doistemposcafe.totem.repository.UserRepository;
 import com.doistemposcafe.totem.security.Jwt;
+import com.doistemposcafe.totem.security.LoginThrottle;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -22,19 +24,34 @@ public class AuthService {
     private final UserDetailsService userDetailsService;
     private final UserMapper userMapper;
     private final UserRepository userRepository;
+    private final LoginThrottle loginThrottle;
 
-    public AuthService(AuthenticationManager authenticationManager, Jwt jwt, UserDetailsService userDetailsService, UserMapper userMapper, UserRepository userRepository) {
+    public AuthService(AuthenticationManager authenticationManager, Jwt jwt, UserDetailsService userDetailsService, UserMapper userMapper, UserRepository userRepository,
+                       LoginThrottle loginThrottle) {
         this.authenticationManager = authenticationManager;
         this.jwt = jwt;
         this.userDetailsService = userDetailsService;
         this.userMapper = userMapper;
         this.userRepository = userRepository;
+        this.loginThrottle = loginThrottle;
     }
 
-    public LoginOutputDTO authenticate(String username, String password) {
-        Authentication authentication = authenticationManager.authenticate(
-                new UsernamePasswordAuthenticationToken(username, password)
-        );
+    public LoginOutputDTO authenticate(String username, String password, String clientIp) {
+        // Before BCrypt, so a burst is turned away without spending CPU
+        loginThrottle.check(clientIp, username);
+        Authentication authentication;
+        try {
+            authentication = authenticationManager.authenticate(
+                    new UsernamePasswordAuthenticationToken(username, password)
+            );
+        } catch (BadCredentialsException e) {
+            // A wrong password keeps the account token it took
+            throw e;
+        } catch (RuntimeException e) {
+            loginThrottle.release(clientIp, username);
+            throw e;
+        }
+        loginThrottle.release(clientIp, username);
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
         String token = jwt.generateToken(userDetails);
         User userEntity = userRepository.findByEmail(username)
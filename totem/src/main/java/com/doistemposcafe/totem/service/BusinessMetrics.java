@@ -0,0 +1,75 @@
+package com.doistemposcafe.totem.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.Supplier;
+
+/**
+ * Métricas de negócio por restaurante, expostas em /actuator/prometheus:
+ * <ul>
+ *   <li>totem_orders_placed_total: pedidos confirmados (pedidos/minuto = rate(...[1m]) * 60);</li>
+ *   <li>totem_orders_ticket_reais: valor dos pedidos (ticket médio = _sum / _count);</li>
+ *   <li>totem_checkout_duration_seconds: duração do checkout, por resultado.</li>
+ * </ul>
+ */
+@Component
+public class BusinessMetrics {
+
+    private static final String NO_RESTAURANT = "none";
+
+    private final MeterRegistry meterRegistry;
+
+    public BusinessMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent change) {
+        if (!OrderChangedEvent.ORDER_CREATED.equals(change.type())) {
+            return;
+        }
+        String restaurant = restaurantTag(change.restaurantId());
+        Counter.builder("totem.orders.placed")
+                .description("Pedidos criados e confirmados")
+                .tag("restaurant", restaurant)
+                .register(meterRegistry)
+                .increment();
+        if (change.total() != null) {
+            DistributionSummary.builder("totem.orders.ticket")
+                    .description("Valor total dos pedidos")
+                    .baseUnit("reais")
+                    .tag("restaurant", restaurant)
+                    .register(meterRegistry)
+                    .record(change.total());
+        }
+    }
+
+    /**
+     * Executa o checkout medindo sua duração, inclusive o commit, com o resultado (success/error) como tag.
+     */
+    public <T> T timeCheckout(Long restaurantId, Supplier<T> checkout) {
+        Timer.Sample sample = Timer.start(meterRegistry);
+        String outcome = "error";
+        try {
+            T result = checkout.get();
+            outcome = "success";
+            return result;
+        } finally {
+            sample.stop(Timer.builder("totem.checkout.duration")
+                    .description("Duração do checkout")
+                    .tag("restaurant", restaurantTag(restaurantId))
+                    .tag("outcome", outcome)
+                    .register(meterRegistry));
+        }
+    }
+
+    private static String restaurantTag(Long restaurantId) {
+        return restaurantId != null ? restaurantId.toString() : NO_RESTAURANT;
+    }
+}
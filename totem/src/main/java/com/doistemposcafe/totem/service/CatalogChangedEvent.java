@@ -0,0 +1,6 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Publicado sempre que produtos, categorias ou restaurantes são alterados.
+ */
+public record CatalogChangedEvent(String source) {}
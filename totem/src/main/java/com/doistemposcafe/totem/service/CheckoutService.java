@@ -0,0 +1,176 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Input.CheckoutInputDTO;
+import com.doistemposcafe.totem.dto.Input.CheckoutItemInputDTO;
+import com.doistemposcafe.totem.dto.Output.CheckoutOutputDTO;
+import com.doistemposcafe.totem.dto.mapper.OrderItemMapper;
+import com.doistemposcafe.totem.dto.mapper.OrderMapper;
+import com.doistemposcafe.totem.dto.mapper.PaymentMapper;
+import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.OrderItemStatus;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.Payment;
+import com.doistemposcafe.totem.model.PaymentStatus;
+import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.repository.OrderRepository;
+import com.doistemposcafe.totem.repository.PaymentRepository;
+import com.doistemposcafe.totem.repository.ProductRepository;
+import com.doistemposcafe.totem.repository.RestaurantRepository;
+import com.doistemposcafe.totem.repository.UserRepository;
+import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class CheckoutService {
+
+    private final OrderRepository orderRepository;
+    private final PaymentRepository paymentRepository;
+    private final ProductRepository productRepository;
+    private final UserRepository userRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final OrderMapper orderMapper;
+    private final OrderItemMapper orderItemMapper;
+    private final PaymentMapper paymentMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
+
+    public CheckoutService(OrderRepository orderRepository,
+                           PaymentRepository paymentRepository,
+                           ProductRepository productRepository,
+                           UserRepository userRepository,
+                           RestaurantRepository restaurantRepository,
+                           OrderMapper orderMapper,
+                           OrderItemMapper orderItemMapper,
+                           PaymentMapper paymentMapper,
+                           ApplicationEventPublisher eventPublisher,
+                           InventoryService inventoryService) {
+        this.orderRepository = orderRepository;
+        this.paymentRepository = paymentRepository;
+        this.productRepository = productRepository;
+        this.userRepository = userRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.orderMapper = orderMapper;
+        this.orderItemMapper = orderItemMapper;
+        this.paymentMapper = paymentMapper;
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
+    }
+
+    /**
+     * Cria o pedido, seus itens e o pagamento em uma única transação.
+     * Todos os produtos do carrinho são carregados em uma só consulta e o total
+     * é calculado no servidor a partir do preço atual de cada produto.
+     */
+    @Transactional
+    public CheckoutOutputDTO checkout(CheckoutInputDTO inputDTO) {
+        List<CheckoutItemInputDTO> cart = inputDTO.items();
+        if (cart == null || cart.isEmpty()) {
+            throw new IllegalArgumentException("O carrinho está vazio.");
+        }
+        if (inputDTO.userId() == null || inputDTO.restaurantId() == null) {
+            throw new IllegalArgumentException("Usuário e restaurante são obrigatórios.");
+        }
+        if (cart.stream().anyMatch(line -> line == null || line.productId() == null)) {
+            throw new IllegalArgumentException("Todo item do carrinho precisa de um produto.");
+        }
+        PaymentStatus paymentStatus = paymentStatus(inputDTO.paymentStatus());
+        // Otherwise an unknown user only fails at flush, as a foreign key violation
+        if (!userRepository.existsById(inputDTO.userId())) {
+            throw new IllegalArgumentException("Usuário não encontrado: " + inputDTO.userId());
+        }
+
+        Set<Long> productIds = cart.stream()
+                .map(CheckoutItemInputDTO::productId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> products = productRepository.findAllById(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Order order = new Order();
+        order.setName(inputDTO.name());
+        order.setDescription(inputDTO.description());
+        order.setStatus(OrderStatus.PENDING);
+        order.setConsumption_method(inputDTO.consumption_method());
+        // References only: the FK columns are all we need; the restaurant is checked through the products
+        order.setUser(userRepository.getReferenceById(inputDTO.userId()));
+        order.setRestaurant(restaurantRepository.getReferenceById(inputDTO.restaurantId()));
+
+        double total = 0;
+        for (CheckoutItemInputDTO line : cart) {
+            Product product = products.get(line.productId());
+            if (product == null) {
+                throw new IllegalArgumentException("Produto não encontrado: " + line.productId());
+            }
+            // getId() on the lazy restaurant proxy does not hit the database
+            if (product.getRestaurant() == null || !inputDTO.restaurantId().equals(product.getRestaurant().getId())) {
+                throw new IllegalArgumentException("Produto não pertence ao restaurante do pedido: " + product.getName());
+            }
+            if (line.quantity() == null || line.quantity() <= 0) {
+                throw new IllegalArgumentException("Quantidade inválida para o produto: " + product.getName());
+            }
+
+            OrderItem item = new OrderItem();
+            item.setName(product.getName());
+            item.setPrice(product.getPrice());
+            item.setQuantity(line.quantity());
+            item.setStatus(OrderItemStatus.PENDING);
+            item.setProduct(product);
+            item.setOrder(order);
+            order.getItems().add(item);
+
+            total += product.getPrice() * line.quantity();
+        }
+        order.setPrice(total);
+        order.setTotal(total);
+
+        // All-or-nothing; undone automatically if anything below rolls back
+        inventoryService.reserve(order.getItems());
+
+        // Items are cascaded from the order and flushed as a single JDBC batch
+        Order savedOrder = orderRepository.save(order);
+
+        Payment payment = new Payment();
+        payment.setMethod(inputDTO.paymentMethod());
+        payment.setAmount(total);
+        payment.setStatus(paymentStatus);
+        payment.setTransactionId(inputDTO.transactionId() != null
+                ? inputDTO.transactionId()
+                : UUID.randomUUID().toString());
+        payment.setPaymentDate(LocalDateTime.now());
+        payment.setOrder(savedOrder);
+        Payment savedPayment = paymentRepository.save(payment);
+        savedOrder.setPayment(savedPayment);
+        eventPublisher.publishEvent(new PaymentChangedEvent(savedPayment.getId(), null,
+                PaymentChangedEvent.State.of(savedPayment)));
+        eventPublisher.publishEvent(new ProductsOrderedEvent(inputDTO.restaurantId(), savedOrder.getId(), null, cart.stream()
+                .collect(Collectors.toMap(CheckoutItemInputDTO::productId, CheckoutItemInputDTO::quantity, Integer::sum))));
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.ORDER_CREATED,
+                inputDTO.restaurantId(), savedOrder.getId(), null, null, savedOrder.getStatus().name(), total));
+
+        return new CheckoutOutputDTO(
+                orderMapper.toOutputDTO(savedOrder),
+                orderItemMapper.toOutputDTOs(savedOrder.getItems()),
+                paymentMapper.toOutputDTO(savedPayment));
+    }
+
+    private static PaymentStatus paymentStatus(String status) {
+        if (status == null) {
+            return PaymentStatus.PENDING;
+        }
+        try {
+            return PaymentStatus.valueOf(status);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Status de pagamento inválido: " + status
+                    + ". Use PENDING, COMPLETED, FAILED ou REFUNDED.");
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.doistemposcafe.totem.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Matriz esparsa de coocorrência de produtos de um restaurante: para cada par, em quantos pedidos os
+ * dois aparecem juntos, além de em quantos pedidos cada produto aparece e do total de pedidos. Cada
+ * linha é um LongIntHashMap, então um cardápio de centenas de itens cabe em poucas centenas de KB.
+ */
+final class CoOccurrenceMatrix {
+
+    private static final long[] NONE = new long[0];
+
+    private final LongIntHashMap orders = new LongIntHashMap();
+    private final Map<Long, LongIntHashMap> rows = new HashMap<>();
+    private int totalOrders;
+
+    /** Um pedido novo com estes produtos, distintos. */
+    synchronized void addOrder(long[] products) {
+        addProducts(products, NONE);
+    }
+
+    /**
+     * Produtos added entraram em um pedido que já tinha os produtos prior; os dois conjuntos são
+     * distintos e disjuntos. Com prior vazio o pedido passa a contar no total.
+     */
+    synchronized void addProducts(long[] added, long[] prior) {
+        if (added.length == 0) {
+            return;
+        }
+        if (prior.length == 0) {
+            totalOrders++;
+        }
+        for (int i = 0; i < added.length; i++) {
+            orders.addTo(added[i], 1);
+            for (long other : prior) {
+                pair(added[i], other, 1);
+            }
+            for (int j = i + 1; j < added.length; j++) {
+                pair(added[i], added[j], 1);
+            }
+        }
+    }
+
+    /** Soma other a esta matriz; other não pode estar sendo alterada. */
+    synchronized void addAll(CoOccurrenceMatrix other) {
+        totalOrders += other.totalOrders;
+        orders.addAll(other.orders);
+        other.rows.forEach((product, row) -> rows.computeIfAbsent(product, id -> new LongIntHashMap()).addAll(row));
+    }
+
+    /**
+     * Até limit produtos pedidos junto com product em pelo menos minSupport pedidos, do maior para o
+     * menor confidence (fração dos pedidos de product que também têm o outro).
+     */
+    synchronized List<Suggestion> suggest(long product, int limit, int minSupport) {
+        LongIntHashMap row = rows.get(product);
+        int productOrders = orders.get(product);
+        if (row == null || productOrders == 0) {
+            return List.of();
+        }
+        List<Suggestion> suggestions = new ArrayList<>(row.size());
+        row.forEach((other, together) -> {
+            if (together >= minSupport) {
+                double confidence = (double) together / productOrders;
+                double lift = confidence * totalOrders / orders.get(other);
+                suggestions.add(new Suggestion(other, together, confidence, lift));
+            }
+        });
+        suggestions.sort(Comparator.comparingDouble(Suggestion::confidence).reversed()
+                .thenComparing(Comparator.comparingDouble(Suggestion::lift).reversed())
+                .thenComparingLong(Suggestion::productId));
+        return suggestions.size() > limit ? List.copyOf(suggestions.subList(0, limit)) : suggestions;
+    }
+
+    synchronized int totalOrders() {
+        return totalOrders;
+    }
+
+    private void pair(long a, long b, int count) {
+        rows.computeIfAbsent(a, id -> new LongIntHashMap()).addTo(b, count);
+        rows.computeIfAbsent(b, id -> new LongIntHashMap()).addTo(a, count);
+    }
+
+    record Suggestion(long productId, int together, double confidence, double lift) {}
+}
@@ -0,0 +1,75 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Count-min sketch de pesos em double, com atualização conservadora: só as células abaixo da nova
+ * estimativa sobem, o que reduz a superestimação dos itens pouco frequentes. Não é thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int depth;
+    private final int mask;
+    private final double[][] cells;
+
+    /**
+     * @param width células por linha, arredondado para a próxima potência de dois
+     * @param depth número de linhas (funções de hash)
+     */
+    CountMinSketch(int width, int depth) {
+        if (width < 1 || depth < 1) {
+            throw new IllegalArgumentException("Largura e profundidade do sketch devem ser positivas.");
+        }
+        int size = Integer.highestOneBit(Math.max(1, width - 1)) << 1;
+        this.depth = depth;
+        this.mask = size - 1;
+        this.cells = new double[depth][size];
+    }
+
+    /** Soma weight à chave e retorna a nova estimativa. */
+    double add(long key, double weight) {
+        long h1 = mix(key);
+        long h2 = mix(h1) | 1;
+        double estimate = estimate(h1, h2) + weight;
+        for (int row = 0; row < depth; row++) {
+            int index = index(h1, h2, row);
+            if (cells[row][index] < estimate) {
+                cells[row][index] = estimate;
+            }
+        }
+        return estimate;
+    }
+
+    double estimate(long key) {
+        long h1 = mix(key);
+        return estimate(h1, mix(h1) | 1);
+    }
+
+    /** Multiplica todas as células por factor. */
+    void scale(double factor) {
+        for (double[] row : cells) {
+            for (int i = 0; i < row.length; i++) {
+                row[i] *= factor;
+            }
+        }
+    }
+
+    private double estimate(long h1, long h2) {
+        double min = Double.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, cells[row][index(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    // Double hashing: row i uses h1 + i * h2
+    private int index(long h1, long h2, int row) {
+        return (int) ((h1 + row * h2) >>> 32) & mask;
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long value) {
+        long z = value + 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,93 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Output.DashboardSummaryOutputDTO;
+import com.doistemposcafe.totem.dto.Output.DashboardSummaryOutputDTO.RecentOrder;
+import com.doistemposcafe.totem.model.OrderStatus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resumo dos painéis de administrador e gerente em três consultas agregadas (totais e números do dia,
+ * pedidos em aberto por status e pedidos recentes), em vez de carregar as tabelas inteiras no navegador.
+ * Com restaurantId, tudo menos o total de usuários fica restrito ao restaurante.
+ */
+@Service
+public class DashboardService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int recentOrders;
+
+    public DashboardService(NamedParameterJdbcTemplate jdbcTemplate,
+                            @Value("${dashboard.recent-orders:10}") int recentOrders) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recentOrders = recentOrders;
+    }
+
+    public DashboardSummaryOutputDTO getSummary(Long restaurantId) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("restaurantId", restaurantId)
+                .addValue("startOfDay", Timestamp.valueOf(LocalDate.now().atStartOfDay()))
+                .addValue("limit", recentOrders);
+        // Filters are appended only when present, so each variant is planned against its own index
+        boolean byRestaurant = restaurantId != null;
+
+        String totalsSql = "SELECT"
+                + " (SELECT count(*) FROM product" + (byRestaurant ? " WHERE restaurant_id = :restaurantId" : "") + ") AS products,"
+                + " (SELECT count(*) FROM menu_category" + (byRestaurant ? " WHERE restaurant_id = :restaurantId" : "") + ") AS menu_categories,"
+                + " (SELECT count(*) FROM restaurant" + (byRestaurant ? " WHERE id = :restaurantId" : "") + ") AS restaurants,"
+                + " (SELECT count(*) FROM users) AS users,"
+                + " (SELECT count(*) FROM orders WHERE created_at >= :startOfDay"
+                + (byRestaurant ? " AND restaurant_id = :restaurantId" : "") + ") AS orders_today,"
+                + " (SELECT count(*) FROM payment p" + paymentsToday(byRestaurant) + ") AS payments_today,"
+                + " (SELECT coalesce(sum(p.amount), 0) FROM payment p" + paymentsToday(byRestaurant) + ") AS revenue_today";
+        Map<String, Object> totals = jdbcTemplate.queryForMap(totalsSql, params);
+
+        Map<String, Long> openOrdersByStatus = new LinkedHashMap<>();
+        // Every open status is listed, with zero when no order is in it
+        OrderStatus.OPEN.forEach(status -> openOrdersByStatus.put(status.name(), 0L));
+        jdbcTemplate.query("SELECT status, count(*) FROM orders WHERE status IN " + OrderStatus.OPEN_SQL_LIST
+                        + (byRestaurant ? " AND restaurant_id = :restaurantId" : "") + " GROUP BY status",
+                params, rs -> {
+                    openOrdersByStatus.put(rs.getString(1), rs.getLong(2));
+                });
+
+        List<RecentOrder> recent = jdbcTemplate.query(
+                "SELECT id, name, status, consumption_method, total, restaurant_id, created_at FROM orders"
+                        + (byRestaurant ? " WHERE restaurant_id = :restaurantId" : "")
+                        + " ORDER BY created_at DESC, id DESC LIMIT :limit",
+                params, (rs, rowNum) -> new RecentOrder(
+                        rs.getLong("id"),
+                        rs.getString("name"),
+                        rs.getString("status"),
+                        rs.getString("consumption_method"),
+                        rs.getDouble("total"),
+                        rs.getLong("restaurant_id"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+
+        return new DashboardSummaryOutputDTO(
+                ((Number) totals.get("products")).longValue(),
+                ((Number) totals.get("menu_categories")).longValue(),
+                ((Number) totals.get("restaurants")).longValue(),
+                ((Number) totals.get("users")).longValue(),
+                ((Number) totals.get("orders_today")).longValue(),
+                ((Number) totals.get("payments_today")).longValue(),
+                ((Number) totals.get("revenue_today")).doubleValue(),
+                openOrdersByStatus,
+                recent,
+                LocalDateTime.now());
+    }
+
+    private static String paymentsToday(boolean byRestaurant) {
+        return (byRestaurant ? " JOIN orders o ON o.id = p.order_id AND o.restaurant_id = :restaurantId" : "")
+                + " WHERE p.status = 'COMPLETED' AND p.payment_date >= :startOfDay";
+    }
+}
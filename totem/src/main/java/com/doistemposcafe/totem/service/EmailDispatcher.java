@@ -0,0 +1,155 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.model.EmailOutbox;
+import com.doistemposcafe.totem.repository.EmailOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+/**
+ * Esvazia a tabela email_outbox em segundo plano. Cada ciclo reserva um lote de e-mails
+ * pendentes (commit antes de falar com o SMTP, sem segurar conexão do banco), divide o lote
+ * entre no máximo {@code concurrency} envios paralelos — cada um reutilizando uma única conexão
+ * SMTP — e reagenda as falhas com backoff exponencial até {@code maxAttempts}.
+ */
+@Component
+public class EmailDispatcher {
+
+    private static final Logger logger = LoggerFactory.getLogger(EmailDispatcher.class);
+
+    private final EmailOutboxRepository outboxRepository;
+    private final JavaMailSender mailSender;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor mailExecutor;
+    private final int batchSize;
+    private final int concurrency;
+    private final int maxAttempts;
+    private final Duration baseBackoff;
+    private final Duration lease;
+
+    public EmailDispatcher(EmailOutboxRepository outboxRepository,
+                           JavaMailSender mailSender,
+                           PlatformTransactionManager transactionManager,
+                           @Qualifier("mailExecutor") Executor mailExecutor,
+                           @Value("${mail.outbox.batch-size:50}") int batchSize,
+                           @Value("${mail.outbox.concurrency:2}") int concurrency,
+                           @Value("${mail.outbox.max-attempts:5}") int maxAttempts,
+                           @Value("${mail.outbox.base-backoff-ms:5000}") long baseBackoffMs,
+                           @Value("${mail.outbox.lease-ms:120000}") long leaseMs) {
+        this.outboxRepository = outboxRepository;
+        this.mailSender = mailSender;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.mailExecutor = mailExecutor;
+        this.batchSize = batchSize;
+        this.concurrency = concurrency;
+        this.maxAttempts = maxAttempts;
+        this.baseBackoff = Duration.ofMillis(baseBackoffMs);
+        this.lease = Duration.ofMillis(leaseMs);
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:2000}")
+    public void dispatch() {
+        List<EmailOutbox> claimed = transactionTemplate.execute(status -> claim());
+        if (claimed == null || claimed.isEmpty()) {
+            return;
+        }
+
+        int chunkSize = (claimed.size() + concurrency - 1) / concurrency;
+        List<CompletableFuture<Void>> sends = new ArrayList<>();
+        for (int from = 0; from < claimed.size(); from += chunkSize) {
+            List<EmailOutbox> chunk = claimed.subList(from, Math.min(from + chunkSize, claimed.size()));
+            sends.add(CompletableFuture.runAsync(() -> send(chunk), mailExecutor));
+        }
+        CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new)).join();
+    }
+
+    List<EmailOutbox> claim() {
+        LocalDateTime now = LocalDateTime.now();
+        List<EmailOutbox> due = outboxRepository.lockDue(now, batchSize);
+        if (!due.isEmpty()) {
+            outboxRepository.markSending(due.stream().map(EmailOutbox::getId).toList(), now.plus(lease));
+            // In memory only: the rows are detached and already carry the new count
+            due.forEach(email -> email.setAttempts(email.getAttempts() + 1));
+        }
+        return due;
+    }
+
+    void send(List<EmailOutbox> chunk) {
+        Map<SimpleMailMessage, EmailOutbox> byMessage = new IdentityHashMap<>();
+        for (EmailOutbox email : chunk) {
+            byMessage.put(toMessage(email), email);
+        }
+
+        Map<Object, Exception> failures;
+        try {
+            mailSender.send(byMessage.keySet().toArray(SimpleMailMessage[]::new));
+            failures = Map.of();
+        } catch (MailSendException e) {
+            failures = e.getFailedMessages().isEmpty() ? allFailed(byMessage, e) : e.getFailedMessages();
+        } catch (MailException e) {
+            failures = allFailed(byMessage, e);
+        }
+
+        List<Long> sent = new ArrayList<>();
+        Map<EmailOutbox, Exception> failed = new IdentityHashMap<>();
+        for (Map.Entry<SimpleMailMessage, EmailOutbox> entry : byMessage.entrySet()) {
+            Exception error = failures.get(entry.getKey());
+            if (error == null) {
+                sent.add(entry.getValue().getId());
+            } else {
+                failed.put(entry.getValue(), error);
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!sent.isEmpty()) {
+                outboxRepository.markSent(sent, LocalDateTime.now());
+            }
+            failed.forEach(this::reschedule);
+        });
+    }
+
+    private void reschedule(EmailOutbox email, Exception error) {
+        boolean exhausted = email.getAttempts() >= maxAttempts;
+        Duration backoff = baseBackoff.multipliedBy(1L << Math.min(email.getAttempts() - 1, 16));
+        outboxRepository.markFailedAttempt(email.getId(),
+                exhausted ? EmailOutbox.FAILED : EmailOutbox.PENDING,
+                LocalDateTime.now().plus(backoff),
+                error.getMessage());
+        logger.warn("Falha ao enviar e-mail {} (tentativa {}/{}): {}",
+                email.getId(), email.getAttempts(), maxAttempts, error.getMessage());
+    }
+
+    private SimpleMailMessage toMessage(EmailOutbox email) {
+        SimpleMailMessage message = new SimpleMailMessage();
+        message.setFrom(EmailService.FROM_EMAIL);
+        message.setTo(email.getRecipient());
+        message.setSubject(email.getSubject());
+        message.setText(email.getBody());
+        return message;
+    }
+
+    private Map<Object, Exception> allFailed(Map<SimpleMailMessage, EmailOutbox> byMessage, Exception e) {
+        Map<Object, Exception> failures = new IdentityHashMap<>();
+        byMessage.keySet().forEach(message -> failures.put(message, e));
+        return failures;
+    }
+}
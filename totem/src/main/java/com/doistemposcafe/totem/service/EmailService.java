@@ -1,5 +1,7 @@
 package com.doistemposcafe.totem.service;
 
+import com.doistemposcafe.totem.model.EmailOutbox;
+import com.doistemposcafe.totem.repository.EmailOutboxRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.mail.SimpleMailMessage;
@@ -10,7 +12,10 @@ public class EmailService {
     @Autowired
     private JavaMailSender mailSender;
 
-    private final String FROM_EMAIL = "noreply@seusistema.com";
+    @Autowired
+    private EmailOutboxRepository outboxRepository;
+
+    public static final String FROM_EMAIL = "noreply@seusistema.com";
 
     public void sendSimpleMail(String to, String subject, String text) {
         SimpleMailMessage message = new SimpleMailMessage();
@@ -20,4 +25,12 @@ public class EmailService {
         message.setText(text);
         mailSender.send(message);
     }
+
+    /**
+     * Grava o e-mail na outbox dentro da transação atual; o envio é feito depois
+     * pelo EmailDispatcher, fora da requisição.
+     */
+    public void enqueue(String to, String subject, String text) {
+        outboxRepository.save(new EmailOutbox(to, subject, text));
+    }
 }
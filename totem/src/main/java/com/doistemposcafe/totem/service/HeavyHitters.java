@@ -0,0 +1,93 @@
+package com.doistemposcafe.totem.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Itens mais frequentes de um fluxo com decaimento exponencial: cada ocorrência pesa metade a cada
+ * halfLife. Usa decaimento "para frente" — o peso cresce com o tempo em vez de o passado encolher —,
+ * então o sketch e o heap nunca precisam ser varridos para envelhecer, só reescalados de vez em quando
+ * para não estourar o double. O heap de mínimo guarda os capacity candidatos de maior estimativa.
+ */
+final class HeavyHitters {
+
+    // e^40 leaves plenty of headroom in a double before everything is rescaled
+    private static final double MAX_EXPONENT = 40;
+
+    private final CountMinSketch sketch;
+    private final int capacity;
+    private final double decayPerMilli;
+    private final Map<Long, Candidate> candidates = new HashMap<>();
+    private final PriorityQueue<Candidate> heap = new PriorityQueue<>(Comparator.comparingDouble(Candidate::score));
+    private long landmarkMillis;
+
+    HeavyHitters(int capacity, int width, int depth, long halfLifeMillis, long nowMillis) {
+        this.sketch = new CountMinSketch(width, depth);
+        this.capacity = capacity;
+        this.decayPerMilli = Math.log(2) / halfLifeMillis;
+        this.landmarkMillis = nowMillis;
+    }
+
+    synchronized void add(long key, double count, long timeMillis) {
+        double exponent = (timeMillis - landmarkMillis) * decayPerMilli;
+        if (exponent > MAX_EXPONENT) {
+            rescale(timeMillis);
+            exponent = 0;
+        }
+        double score = sketch.add(key, count * Math.exp(exponent));
+
+        Candidate candidate = candidates.get(key);
+        if (candidate != null) {
+            heap.remove(candidate);
+        } else if (candidates.size() >= capacity) {
+            if (score <= heap.peek().score()) {
+                return;
+            }
+            candidates.remove(heap.poll().key());
+        }
+        candidate = new Candidate(key, score);
+        candidates.put(key, candidate);
+        heap.offer(candidate);
+    }
+
+    /**
+     * Até limit itens com contagem decaída de pelo menos minCount, do maior para o menor.
+     */
+    synchronized List<Hit> top(int limit, double minCount, long nowMillis) {
+        double decay = Math.exp(-(nowMillis - landmarkMillis) * decayPerMilli);
+        List<Hit> hits = new ArrayList<>();
+        for (Candidate candidate : candidates.values()) {
+            double count = candidate.score() * decay;
+            if (count >= minCount) {
+                hits.add(new Hit(candidate.key(), count));
+            }
+        }
+        hits.sort(Comparator.comparingDouble(Hit::count).reversed().thenComparingLong(Hit::key));
+        return hits.size() > limit ? List.copyOf(hits.subList(0, limit)) : hits;
+    }
+
+    // Moves the landmark to now; every weight shrinks by the same factor, so the ranking is unchanged
+    private void rescale(long nowMillis) {
+        double factor = Math.exp(-(nowMillis - landmarkMillis) * decayPerMilli);
+        sketch.scale(factor);
+        List<Candidate> rescaled = new ArrayList<>(candidates.size());
+        for (Candidate candidate : candidates.values()) {
+            rescaled.add(new Candidate(candidate.key(), candidate.score() * factor));
+        }
+        candidates.clear();
+        heap.clear();
+        for (Candidate candidate : rescaled) {
+            candidates.put(candidate.key(), candidate);
+            heap.offer(candidate);
+        }
+        landmarkMillis = nowMillis;
+    }
+
+    record Hit(long key, double count) {}
+
+    private record Candidate(long key, double score) {}
+}
@@ -0,0 +1,253 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.exception.IdempotencyConflictException;
+import com.doistemposcafe.totem.model.IdempotencyRecord;
+import com.doistemposcafe.totem.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.transaction.Transactional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Suporte ao header Idempotency-Key nos POSTs de criação. A primeira requisição com uma chave
+ * grava a linha em idempotency_key antes de executar a ação, na mesma transação dela, e completa a
+ * linha com a resposta 2xx antes do commit: ou o pedido e a chave são gravados juntos, ou nenhum
+ * dos dois. Uma segunda instância com a mesma chave fica presa no índice único até a primeira
+ * terminar e então reaproveita a resposta gravada (ou executa, se a primeira falhou). Dentro de uma
+ * mesma JVM os reenvios simultâneos esperam em memória, e as respostas ficam também em um LRU.
+ */
+@Service
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private record StoredResponse(String requestHash, int status, String body, long storedAt) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, StoredResponse> completed;
+    private final Map<String, CompletableFuture<StoredResponse>> inFlight = new ConcurrentHashMap<>();
+    private final Duration ttl;
+    private final long waitTimeoutMs;
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              ObjectMapper objectMapper,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${idempotency.cache-size:10000}") int cacheSize,
+                              @Value("${idempotency.ttl-hours:24}") long ttlHours,
+                              @Value("${idempotency.wait-timeout-ms:30000}") long waitTimeoutMs) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.ttl = Duration.ofHours(ttlHours);
+        this.waitTimeoutMs = waitTimeoutMs;
+        this.completed = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, StoredResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Executa {@code action} uma única vez por (scope, key). Sem chave, apenas executa.
+     */
+    public <T> ResponseEntity<T> execute(String scope, String key, Object request, Class<T> responseType,
+                                         Supplier<ResponseEntity<T>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException("Idempotency-Key deve ter no máximo " + MAX_KEY_LENGTH + " caracteres.");
+        }
+
+        String cacheKey = scope + ":" + key;
+        String requestHash = hash(request);
+
+        StoredResponse stored = lookup(scope, key, cacheKey);
+        if (stored != null) {
+            return replay(stored, requestHash, responseType);
+        }
+
+        CompletableFuture<StoredResponse> mine = new CompletableFuture<>();
+        CompletableFuture<StoredResponse> running = inFlight.putIfAbsent(cacheKey, mine);
+        if (running != null) {
+            return replay(await(running), requestHash, responseType);
+        }
+
+        try {
+            // The first request may have finished between the lookup and putIfAbsent
+            stored = cached(cacheKey);
+            if (stored != null) {
+                mine.complete(stored);
+                return replay(stored, requestHash, responseType);
+            }
+
+            ResponseEntity<T> response;
+            try {
+                response = transactionTemplate.execute(status -> claimAndRun(scope, key, requestHash, action));
+            } catch (KeyTakenException e) {
+                // Another instance committed this key while we waited on the unique index
+                stored = lookup(scope, key, cacheKey);
+                if (stored == null) {
+                    throw new IdempotencyConflictException("Uma requisição com a mesma Idempotency-Key ainda está em processamento.");
+                }
+                mine.complete(stored);
+                return replay(stored, requestHash, responseType);
+            }
+            stored = new StoredResponse(requestHash, response.getStatusCode().value(),
+                    toJson(response.getBody()), System.currentTimeMillis());
+            if (response.getStatusCode().is2xxSuccessful()) {
+                synchronized (completed) {
+                    completed.put(cacheKey, stored);
+                }
+            }
+            mine.complete(stored);
+            return response;
+        } catch (RuntimeException e) {
+            // Waiting duplicates get the same error; the next retry runs again
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(cacheKey, mine);
+        }
+    }
+
+    @Scheduled(cron = "${idempotency.purge-cron:0 30 4 * * *}")
+    @Transactional
+    public void purgeExpired() {
+        int removed = repository.deleteCreatedBefore(LocalDateTime.now().minus(ttl));
+        if (removed > 0) {
+            logger.info("{} chaves de idempotência expiradas removidas", removed);
+        }
+    }
+
+    private StoredResponse lookup(String scope, String key, String cacheKey) {
+        StoredResponse stored = cached(cacheKey);
+        if (stored != null) {
+            return stored;
+        }
+        return repository.findByScopeAndIdempotencyKey(scope, key)
+                .filter(record -> record.getCreatedAt().isAfter(LocalDateTime.now().minus(ttl)))
+                .map(record -> {
+                    StoredResponse fromDb = new StoredResponse(record.getRequestHash(), record.getStatusCode(),
+                            record.getResponseBody(), System.currentTimeMillis());
+                    synchronized (completed) {
+                        completed.put(cacheKey, fromDb);
+                    }
+                    return fromDb;
+                })
+                .orElse(null);
+    }
+
+    private StoredResponse cached(String cacheKey) {
+        synchronized (completed) {
+            StoredResponse stored = completed.get(cacheKey);
+            if (stored != null && stored.storedAt() + ttl.toMillis() < System.currentTimeMillis()) {
+                completed.remove(cacheKey);
+                return null;
+            }
+            return stored;
+        }
+    }
+
+    // Runs inside the action's transaction: the claim, the action and the stored response commit together
+    private <T> ResponseEntity<T> claimAndRun(String scope, String key, String requestHash,
+                                              Supplier<ResponseEntity<T>> action) {
+        IdempotencyRecord claim;
+        try {
+            // Flushed right away so that a concurrent instance blocks here, before doing any work;
+            // status 0 is never seen by others, the row only becomes visible with the response
+            claim = repository.saveAndFlush(new IdempotencyRecord(scope, key, requestHash, 0, null));
+        } catch (DataIntegrityViolationException e) {
+            throw new KeyTakenException();
+        }
+        ResponseEntity<T> response = action.get();
+        if (response.getStatusCode().is2xxSuccessful()) {
+            claim.setStatusCode(response.getStatusCode().value());
+            claim.setResponseBody(toJson(response.getBody()));
+        } else {
+            // Only successes are replayed; a retry after an error runs the action again
+            repository.delete(claim);
+        }
+        return response;
+    }
+
+    private static final class KeyTakenException extends RuntimeException {
+        KeyTakenException() {
+            super(null, null, false, false);
+        }
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeoutMs, TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (TimeoutException e) {
+            throw new IdempotencyConflictException("Uma requisição com a mesma Idempotency-Key ainda está em processamento.");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IdempotencyConflictException("Uma requisição com a mesma Idempotency-Key ainda está em processamento.");
+        }
+    }
+
+    private <T> ResponseEntity<T> replay(StoredResponse stored, String requestHash, Class<T> responseType) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IllegalArgumentException("Idempotency-Key já utilizada com outro conteúdo de requisição.");
+        }
+        try {
+            T body = stored.body() != null ? objectMapper.readValue(stored.body(), responseType) : null;
+            return ResponseEntity.status(stored.status()).header(REPLAYED_HEADER, "true").body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Resposta de idempotência inválida", e);
+        }
+    }
+
+    private String toJson(Object body) {
+        try {
+            return body != null ? objectMapper.writeValueAsString(body) : null;
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
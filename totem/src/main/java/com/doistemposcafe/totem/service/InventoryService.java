@@ -0,0 +1,281 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.exception.InsufficientStockException;
+import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.repository.ProductRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Reserva de estoque (Product.amount) para o checkout.
+ *
+ * <p>No modo padrão (write-behind) cada produto tem um contador atômico em memória, carregado
+ * do banco no primeiro uso: a reserva é um compare-and-set, sem lock de linha, e as variações
+ * acumuladas são gravadas em lote periodicamente. Esse modo assume uma única instância da API.
+ * Com {@code inventory.write-behind=false} cada reserva vira um UPDATE condicional
+ * ({@code amount >= :quantity}), seguro com várias instâncias.
+ *
+ * <p>Produtos com amount nulo não têm controle de estoque.
+ */
+@Service
+public class InventoryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(InventoryService.class);
+
+    private static final String FLUSH_SQL = "UPDATE product SET amount = amount + ? WHERE id = ? AND amount IS NOT NULL";
+
+    private final Map<Long, StockCounter> counters = new ConcurrentHashMap<>();
+    private final ProductRepository productRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean writeBehind;
+
+    public InventoryService(ProductRepository productRepository,
+                            JdbcTemplate jdbcTemplate,
+                            @Value("${inventory.write-behind:true}") boolean writeBehind) {
+        this.productRepository = productRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.writeBehind = writeBehind;
+    }
+
+    /**
+     * Reserva o estoque de todos os itens, ou de nenhum: lança InsufficientStockException
+     * no primeiro produto sem saldo. Se a transação corrente sofrer rollback, a reserva é desfeita.
+     */
+    public void reserve(List<OrderItem> items) {
+        reserveLines(linesByProduct(items));
+    }
+
+    /**
+     * Devolve ao estoque as quantidades dos itens. Só tem efeito se a transação corrente for confirmada.
+     */
+    public void release(List<OrderItem> items) {
+        releaseLines(linesByProduct(items));
+    }
+
+    /**
+     * Acerta a reserva de itens alterados: reserva o que passaram a pedir a mais e devolve o que
+     * deixaram de pedir, produto a produto. before é o que os itens reservavam antes da alteração.
+     */
+    public void adjust(List<OrderItem> before, List<OrderItem> after) {
+        Map<Long, StockLine> previous = new LinkedHashMap<>();
+        linesByProduct(before).forEach(line -> previous.put(line.product().getId(), line));
+        List<StockLine> more = new ArrayList<>();
+        List<StockLine> less = new ArrayList<>();
+        for (StockLine line : linesByProduct(after)) {
+            StockLine old = previous.remove(line.product().getId());
+            int difference = line.quantity() - (old != null ? old.quantity() : 0);
+            if (difference > 0) {
+                more.add(new StockLine(line.product(), difference));
+            } else if (difference < 0) {
+                less.add(new StockLine(line.product(), -difference));
+            }
+        }
+        less.addAll(previous.values());
+        reserveLines(more);
+        releaseLines(less);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStockChanged(StockChangedEvent event) {
+        // Reload the amount typed by the manager, but first write the reservations it cannot know about
+        StockCounter replaced = counters.remove(event.productId());
+        int delta = replaced != null ? replaced.drainPending() : 0;
+        if (delta == 0) {
+            return;
+        }
+        try {
+            jdbcTemplate.update(FLUSH_SQL, delta, event.productId());
+        } catch (RuntimeException e) {
+            // Keep the old counter so the next flush writes the delta
+            replaced.restorePending(delta);
+            counters.putIfAbsent(event.productId(), replaced);
+            logger.warn("Falha ao gravar estoque do produto {}, nova tentativa no próximo ciclo: {}",
+                    event.productId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.flush-interval-ms:1000}")
+    public void flush() {
+        if (!writeBehind) {
+            return;
+        }
+        List<Long> productIds = new ArrayList<>();
+        List<Object[]> batch = new ArrayList<>();
+        List<StockCounter> drained = new ArrayList<>();
+        counters.forEach((productId, counter) -> {
+            int delta = counter.drainPending();
+            if (delta != 0) {
+                productIds.add(productId);
+                batch.add(new Object[]{delta, productId});
+                drained.add(counter);
+            }
+        });
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            jdbcTemplate.batchUpdate(FLUSH_SQL, batch);
+        } catch (RuntimeException e) {
+            // Keep the deltas for the next cycle
+            for (int i = 0; i < drained.size(); i++) {
+                drained.get(i).restorePending((int) batch.get(i)[0]);
+            }
+            logger.warn("Falha ao gravar estoque de {} produtos, nova tentativa no próximo ciclo: {}",
+                    productIds.size(), e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private void reserveLines(List<StockLine> lines) {
+        if (!writeBehind) {
+            for (StockLine line : lines) {
+                if (line.product().getAmount() != null
+                        && productRepository.reserveStock(line.product().getId(), line.quantity()) == 0) {
+                    throw insufficient(line.product());
+                }
+            }
+            return;
+        }
+
+        List<Map.Entry<StockCounter, Integer>> reserved = new ArrayList<>();
+        for (StockLine line : lines) {
+            StockCounter counter = counter(line.product());
+            if (!counter.tryReserve(line.quantity())) {
+                reserved.forEach(done -> done.getKey().release(done.getValue()));
+                throw insufficient(line.product());
+            }
+            reserved.add(Map.entry(counter, line.quantity()));
+        }
+
+        afterRollback(() -> reserved.forEach(done -> done.getKey().release(done.getValue())));
+    }
+
+    private void releaseLines(List<StockLine> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        if (!writeBehind) {
+            lines.forEach(line -> productRepository.releaseStock(line.product().getId(), line.quantity()));
+            return;
+        }
+        afterCommit(() -> lines.forEach(line -> counter(line.product()).release(line.quantity())));
+    }
+
+    private StockCounter counter(Product product) {
+        return counters.computeIfAbsent(product.getId(), id -> new StockCounter(product.getAmount()));
+    }
+
+    private List<StockLine> linesByProduct(List<OrderItem> items) {
+        // Keyed by id so two lines of the same product are reserved together
+        Map<Long, Product> products = new LinkedHashMap<>();
+        Map<Long, Integer> quantities = new LinkedHashMap<>();
+        for (OrderItem item : items) {
+            Product product = item.getProduct();
+            if (product == null || item.getQuantity() <= 0) {
+                continue;
+            }
+            products.putIfAbsent(product.getId(), product);
+            quantities.merge(product.getId(), item.getQuantity(), Integer::sum);
+        }
+        List<StockLine> lines = new ArrayList<>();
+        quantities.forEach((id, quantity) -> lines.add(new StockLine(products.get(id), quantity)));
+        return lines;
+    }
+
+    private InsufficientStockException insufficient(Product product) {
+        return new InsufficientStockException("Estoque insuficiente para o produto: " + product.getName());
+    }
+
+    private void afterRollback(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+    }
+
+    private void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private record StockLine(Product product, int quantity) {}
+
+    private static final class StockCounter {
+        private final boolean tracked;
+        private final AtomicInteger available;
+        // Change not yet written to product.amount
+        private final AtomicInteger pending = new AtomicInteger();
+
+        StockCounter(Integer amount) {
+            this.tracked = amount != null;
+            this.available = new AtomicInteger(amount != null ? amount : 0);
+        }
+
+        boolean tryReserve(int quantity) {
+            if (!tracked) {
+                return true;
+            }
+            int current;
+            do {
+                current = available.get();
+                if (current < quantity) {
+                    return false;
+                }
+            } while (!available.compareAndSet(current, current - quantity));
+            pending.addAndGet(-quantity);
+            return true;
+        }
+
+        void release(int quantity) {
+            if (tracked) {
+                available.addAndGet(quantity);
+                pending.addAndGet(quantity);
+            }
+        }
+
+        int drainPending() {
+            return pending.getAndSet(0);
+        }
+
+        void restorePending(int delta) {
+            pending.addAndGet(delta);
+        }
+    }
+}
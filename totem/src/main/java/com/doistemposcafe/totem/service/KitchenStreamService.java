@@ -0,0 +1,182 @@
+package com.doistemposcafe.totem.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Stream SSE de pedidos para as telas da cozinha, por restaurante. Cada restaurante tem um
+ * buffer circular com os últimos eventos, para que uma tela que reconecta com Last-Event-ID
+ * receba só o que perdeu. Se o ID não estiver mais no buffer (ou for de antes de um restart),
+ * a tela recebe um evento "reset" e deve recarregar a lista.
+ */
+@Service
+public class KitchenStreamService {
+
+    private static final Logger logger = LoggerFactory.getLogger(KitchenStreamService.class);
+
+    public record KitchenEvent(
+            long sequence,
+            String type,
+            Long restaurantId,
+            Long orderId,
+            Long itemId,
+            String status,
+            LocalDateTime occurredAt) {}
+
+    private final Map<Long, RestaurantStream> streams = new ConcurrentHashMap<>();
+    // Distinguishes event ids across restarts, when sequences start over
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final Executor kitchenStreamExecutor;
+    private final int bufferSize;
+    private final long emitterTimeoutMs;
+
+    public KitchenStreamService(@Qualifier("kitchenStreamExecutor") Executor kitchenStreamExecutor,
+                                @Value("${kitchen.stream.buffer-size:256}") int bufferSize,
+                                @Value("${kitchen.stream.timeout-ms:1800000}") long emitterTimeoutMs) {
+        this.kitchenStreamExecutor = kitchenStreamExecutor;
+        this.bufferSize = bufferSize;
+        this.emitterTimeoutMs = emitterTimeoutMs;
+    }
+
+    public SseEmitter subscribe(Long restaurantId, String lastEventId) {
+        RestaurantStream stream = stream(restaurantId);
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        emitter.onCompletion(() -> stream.emitters.remove(emitter));
+        emitter.onTimeout(() -> stream.emitters.remove(emitter));
+        emitter.onError(e -> stream.emitters.remove(emitter));
+
+        // Register and replay under the stream lock so no event is missed or sent twice
+        stream.lock.lock();
+        try {
+            if (lastEventId != null) {
+                List<KitchenEvent> missed = stream.since(parseSequence(lastEventId));
+                if (missed == null) {
+                    emitter.send(SseEmitter.event().name("reset").data("{}", MediaType.APPLICATION_JSON));
+                } else {
+                    for (KitchenEvent event : missed) {
+                        emitter.send(toSse(event));
+                    }
+                }
+            }
+            stream.emitters.add(emitter);
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        } finally {
+            stream.lock.unlock();
+        }
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent change) {
+        if (change.restaurantId() == null) {
+            return;
+        }
+        // Fan-out off the request thread: a slow screen must never hold up checkout
+        kitchenStreamExecutor.execute(() -> publish(change));
+    }
+
+    @Scheduled(fixedDelayString = "${kitchen.stream.heartbeat-ms:15000}")
+    public void heartbeat() {
+        streams.values().forEach(stream -> stream.emitters.forEach(emitter -> {
+            try {
+                emitter.send(SseEmitter.event().comment("ping"));
+            } catch (IOException | IllegalStateException e) {
+                stream.emitters.remove(emitter);
+            }
+        }));
+    }
+
+    private void publish(OrderChangedEvent change) {
+        RestaurantStream stream = stream(change.restaurantId());
+        stream.lock.lock();
+        try {
+            KitchenEvent event = stream.append(change);
+            for (SseEmitter emitter : stream.emitters) {
+                try {
+                    emitter.send(toSse(event));
+                } catch (IOException | IllegalStateException e) {
+                    stream.emitters.remove(emitter);
+                    logger.debug("Tela da cozinha desconectada do restaurante {}", change.restaurantId());
+                }
+            }
+        } finally {
+            stream.lock.unlock();
+        }
+    }
+
+    private RestaurantStream stream(Long restaurantId) {
+        return streams.computeIfAbsent(restaurantId, id -> new RestaurantStream(bufferSize));
+    }
+
+    private SseEmitter.SseEventBuilder toSse(KitchenEvent event) {
+        return SseEmitter.event()
+                .id(epoch + "-" + event.sequence())
+                .name(event.type())
+                .data(event, MediaType.APPLICATION_JSON);
+    }
+
+    /** Sequência do Last-Event-ID, ou -1 se o ID não for desta execução. */
+    private long parseSequence(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return -1;
+        }
+        try {
+            return Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static final class RestaurantStream {
+        private final KitchenEvent[] ring;
+        private final List<SseEmitter> emitters = new CopyOnWriteArrayList<>();
+        // Not synchronized: emitter.send blocks on the socket and would pin a virtual thread
+        private final ReentrantLock lock = new ReentrantLock();
+        private long nextSequence = 1;
+
+        RestaurantStream(int capacity) {
+            this.ring = new KitchenEvent[capacity];
+        }
+
+        KitchenEvent append(OrderChangedEvent change) {
+            KitchenEvent event = new KitchenEvent(nextSequence, change.type(), change.restaurantId(),
+                    change.orderId(), change.itemId(), change.status(), LocalDateTime.now());
+            ring[(int) (nextSequence % ring.length)] = event;
+            nextSequence++;
+            return event;
+        }
+
+        /** Eventos depois de {@code sequence}, ou null se eles já saíram do buffer. */
+        List<KitchenEvent> since(long sequence) {
+            long oldest = Math.max(1, nextSequence - ring.length);
+            if (sequence < 0 || sequence + 1 < oldest || sequence >= nextSequence) {
+                return null;
+            }
+            List<KitchenEvent> missed = new ArrayList<>();
+            for (long seq = sequence + 1; seq < nextSequence; seq++) {
+                missed.add(ring[(int) (seq % ring.length)]);
+            }
+            return missed;
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Output.LiveCountersOutputDTO;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.PaymentStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contadores em memória por restaurante para o painel ao vivo: pedidos, pagamentos e faturamento
+ * do dia e pedidos em aberto por status. São LongAdders atualizados depois do commit pelos eventos
+ * de pedido e pagamento, sem lock no caminho do checkout, e a leitura só soma os adders — nenhuma
+ * consulta ao banco. Recarregados do banco na subida, à meia-noite e quando um restaurante recebe
+ * LiveCountersStaleEvent.
+ */
+@Service
+public class LiveCounters {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveCounters.class);
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final AtomicReference<Day> today = new AtomicReference<>(new Day(LocalDate.now()));
+    // Open orders are not tied to a day and carry over the rollover
+    private volatile Map<Long, LongAdder[]> openByRestaurant = new ConcurrentHashMap<>();
+    private volatile LocalDateTime rebuiltAt;
+
+    public LiveCounters(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent change) {
+        if (change.restaurantId() == null || change.itemId() != null) {
+            return;
+        }
+        if (OrderChangedEvent.ORDER_CREATED.equals(change.type())) {
+            currentDay().counters(change.restaurantId()).orders.increment();
+            adjustOpen(change.restaurantId(), change.status(), 1);
+        } else if (OrderChangedEvent.ORDER_STATUS_CHANGED.equals(change.type())) {
+            adjustOpen(change.restaurantId(), change.previousStatus(), -1);
+            adjustOpen(change.restaurantId(), change.status(), 1);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onPaymentChanged(PaymentChangedEvent change) {
+        Day day = currentDay();
+        apply(day, change.before(), -1);
+        apply(day, change.after(), 1);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStale(LiveCountersStaleEvent event) {
+        if (event.restaurantId() != null) {
+            rebuild(event.restaurantId());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild(null);
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível carregar os contadores ao vivo: {}", e.getMessage());
+        }
+    }
+
+    // The day also turns lazily on the first update after midnight; this brings the open orders back in line
+    @Scheduled(cron = "${live-counters.rollover-cron:0 0 0 * * *}")
+    public void rollover() {
+        rebuild(null);
+    }
+
+    /**
+     * Contadores de um restaurante, ou a soma de todos quando restaurantId é nulo.
+     */
+    public LiveCountersOutputDTO getCounters(Long restaurantId) {
+        Day day = currentDay();
+        Collection<DayCounters> counters = restaurantId != null
+                ? optional(day.byRestaurant.get(restaurantId))
+                : day.byRestaurant.values();
+        Collection<LongAdder[]> open = restaurantId != null
+                ? optional(openByRestaurant.get(restaurantId))
+                : openByRestaurant.values();
+
+        long orders = 0;
+        long payments = 0;
+        long revenueCents = 0;
+        for (DayCounters restaurant : counters) {
+            orders += restaurant.orders.sum();
+            payments += restaurant.payments.sum();
+            revenueCents += restaurant.revenueCents.sum();
+        }
+        Map<String, Long> openOrdersByStatus = new LinkedHashMap<>();
+        for (OrderStatus status : OrderStatus.OPEN) {
+            openOrdersByStatus.put(status.name(), open.stream().mapToLong(adders -> adders[status.ordinal()].sum()).sum());
+        }
+        return new LiveCountersOutputDTO(restaurantId, day.date, orders, payments, revenueCents / 100.0,
+                openOrdersByStatus, rebuiltAt);
+    }
+
+    /**
+     * Recarrega do banco os contadores de um restaurante, ou de todos quando restaurantId é nulo.
+     * Um delta aplicado durante a recarga pode ficar de fora ou contar duas vezes até a próxima.
+     */
+    public void rebuild(Long restaurantId) {
+        LocalDate date = LocalDate.now();
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("restaurantId", restaurantId)
+                .addValue("startOfDay", Timestamp.valueOf(date.atStartOfDay()));
+        String byRestaurant = restaurantId != null ? " AND o.restaurant_id = :restaurantId" : "";
+
+        Map<Long, DayCounters> counters = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT o.restaurant_id, count(*) FROM orders o WHERE o.created_at >= :startOfDay"
+                        + byRestaurant + " GROUP BY o.restaurant_id", params,
+                rs -> {
+                    counters.computeIfAbsent(rs.getLong(1), id -> new DayCounters()).orders.add(rs.getLong(2));
+                });
+        // Rounded per payment, exactly as the deltas are
+        jdbcTemplate.query("SELECT o.restaurant_id, count(*), CAST(sum(round(p.amount * 100)) AS BIGINT)"
+                        + " FROM payment p JOIN orders o ON o.id = p.order_id"
+                        + " WHERE p.status = 'COMPLETED' AND p.payment_date >= :startOfDay"
+                        + byRestaurant + " GROUP BY o.restaurant_id", params,
+                rs -> {
+                    DayCounters restaurant = counters.computeIfAbsent(rs.getLong(1), id -> new DayCounters());
+                    restaurant.payments.add(rs.getLong(2));
+                    restaurant.revenueCents.add(rs.getLong(3));
+                });
+        Map<Long, LongAdder[]> open = new ConcurrentHashMap<>();
+        jdbcTemplate.query("SELECT o.restaurant_id, o.status, count(*) FROM orders o"
+                        + " WHERE o.status IN " + OrderStatus.OPEN_SQL_LIST
+                        + byRestaurant + " GROUP BY o.restaurant_id, o.status", params,
+                rs -> {
+                    open.computeIfAbsent(rs.getLong(1), id -> newOpenAdders())
+                            [OrderStatus.valueOf(rs.getString(2)).ordinal()].add(rs.getLong(3));
+                });
+
+        if (restaurantId == null) {
+            today.set(new Day(date, counters));
+            openByRestaurant = open;
+        } else {
+            currentDay().byRestaurant.put(restaurantId, counters.getOrDefault(restaurantId, new DayCounters()));
+            openByRestaurant.put(restaurantId, open.getOrDefault(restaurantId, newOpenAdders()));
+        }
+        rebuiltAt = LocalDateTime.now();
+    }
+
+    private Day currentDay() {
+        LocalDate date = LocalDate.now();
+        return today.updateAndGet(day -> day.date.equals(date) ? day : new Day(date));
+    }
+
+    private void apply(Day day, PaymentChangedEvent.State payment, int sign) {
+        // Only completed payments dated today count, whatever day the change happens on
+        if (payment == null || payment.restaurantId() == null || payment.paymentDate() == null
+                || !PaymentStatus.COMPLETED.name().equals(payment.status())
+                || !payment.paymentDate().toLocalDate().equals(day.date)) {
+            return;
+        }
+        DayCounters restaurant = day.counters(payment.restaurantId());
+        restaurant.payments.add(sign);
+        restaurant.revenueCents.add(sign * Math.round(payment.amount() * 100));
+    }
+
+    private void adjustOpen(Long restaurantId, String status, int delta) {
+        if (status == null) {
+            return;
+        }
+        OrderStatus orderStatus = OrderStatus.valueOf(status);
+        if (orderStatus.isOpen()) {
+            openByRestaurant.computeIfAbsent(restaurantId, id -> newOpenAdders())[orderStatus.ordinal()].add(delta);
+        }
+    }
+
+    private static LongAdder[] newOpenAdders() {
+        LongAdder[] adders = new LongAdder[OrderStatus.values().length];
+        for (int i = 0; i < adders.length; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+
+    private static <T> Collection<T> optional(T value) {
+        return value != null ? List.of(value) : List.of();
+    }
+
+    private static final class Day {
+        private final LocalDate date;
+        private final Map<Long, DayCounters> byRestaurant;
+
+        Day(LocalDate date) {
+            this(date, new ConcurrentHashMap<>());
+        }
+
+        Day(LocalDate date, Map<Long, DayCounters> byRestaurant) {
+            this.date = date;
+            this.byRestaurant = byRestaurant;
+        }
+
+        DayCounters counters(Long restaurantId) {
+            return byRestaurant.computeIfAbsent(restaurantId, id -> new DayCounters());
+        }
+    }
+
+    private static final class DayCounters {
+        private final LongAdder orders = new LongAdder();
+        private final LongAdder payments = new LongAdder();
+        private final LongAdder revenueCents = new LongAdder();
+    }
+}
@@ -0,0 +1,8 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Publicado por mudanças raras que os eventos de pedido e pagamento não descrevem como delta
+ * (pedido excluído ou movido de restaurante), para que os contadores do restaurante sejam
+ * recarregados do banco depois do commit.
+ */
+public record LiveCountersStaleEvent(Long restaurantId) {}
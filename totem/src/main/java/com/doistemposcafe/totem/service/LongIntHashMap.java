@@ -0,0 +1,99 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Mapa long → int com endereçamento aberto e sondagem linear, em dois arrays primitivos: sem
+ * Long/Integer por entrada e sem nó por colisão. A chave 0 marca posição vazia e não pode ser usada;
+ * não há remoção. Não é thread-safe.
+ */
+final class LongIntHashMap {
+
+    private static final int MIN_CAPACITY = 8;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int shift;
+
+    LongIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    LongIntHashMap(int expectedSize) {
+        // Kept at most half full so that probe runs stay short
+        int capacity = Math.max(MIN_CAPACITY, Integer.highestOneBit(Math.max(1, expectedSize * 2 - 1)) << 1);
+        allocate(capacity);
+    }
+
+    int get(long key) {
+        int index = find(key);
+        return keys[index] == key ? values[index] : 0;
+    }
+
+    /** Soma delta ao valor da chave (0 se ausente) e retorna o novo valor. */
+    int addTo(long key, int delta) {
+        if (key == 0) {
+            throw new IllegalArgumentException("A chave 0 é reservada.");
+        }
+        int index = find(key);
+        if (keys[index] != key) {
+            if ((size + 1) * 2 > keys.length) {
+                resize();
+                index = find(key);
+            }
+            keys[index] = key;
+            size++;
+        }
+        return values[index] += delta;
+    }
+
+    void addAll(LongIntHashMap other) {
+        other.forEach(this::addTo);
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(Entry action) {
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != 0) {
+                action.accept(keys[i], values[i]);
+            }
+        }
+    }
+
+    // Slot holding key, or the empty slot where it would go
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int index = (int) ((key * 0x9E3779B97F4A7C15L) >>> shift);
+        while (keys[index] != 0 && keys[index] != key) {
+            index = (index + 1) & mask;
+        }
+        return index;
+    }
+
+    private void resize() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length * 2);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != 0) {
+                int index = find(oldKeys[i]);
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new int[capacity];
+        // Fibonacci hashing keeps the top bits, log2(capacity) of them
+        shift = Long.numberOfLeadingZeros(capacity - 1);
+    }
+
+    @FunctionalInterface
+    interface Entry {
+        void accept(long key, int value);
+    }
+}
@@ -6,7 +6,9 @@ import com.doistemposcafe.totem.dto.mapper.ManagerMapper;
 import com.doistemposcafe.totem.model.Manager;
 import com.doistemposcafe.totem.model.Role;
 import com.doistemposcafe.totem.repository.ManagerRepository;
+import com.doistemposcafe.totem.security.PrincipalChangedEvent;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
@@ -18,12 +20,15 @@ public class ManagerService {
     private final ManagerRepository managerRepository;
     private final ManagerMapper managerMapper;
     private final PasswordEncoder passwordEncoder;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ManagerService(ManagerRepository managerRepository,
-                          ManagerMapper managerMapper, PasswordEncoder passwordEncoder) {
+                          ManagerMapper managerMapper, PasswordEncoder passwordEncoder,
+                          ApplicationEventPublisher eventPublisher) {
         this.managerRepository = managerRepository;
         this.managerMapper = managerMapper;
         this.passwordEncoder = passwordEncoder;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<ManagerOutputDTO> getAllManagers() {
@@ -53,6 +58,7 @@ public class ManagerService {
     public ManagerOutputDTO updateManager(ManagerInputDTO inputDTO, Long id) {
         return managerRepository.findById(id)
                 .map(existing -> {
+                    eventPublisher.publishEvent(new PrincipalChangedEvent(existing.getEmail()));
                     existing.setName(inputDTO.name());
                     existing.setEmail(inputDTO.email());
                     existing.setPassword(inputDTO.password());
@@ -65,10 +71,12 @@ public class ManagerService {
 
     @Transactional
     public boolean deleteManager(Long id) {
-        if (managerRepository.existsById(id)) {
-            managerRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return managerRepository.findById(id)
+                .map(manager -> {
+                    managerRepository.delete(manager);
+                    eventPublisher.publishEvent(new PrincipalChangedEvent(manager.getEmail()));
+                    return true;
+                })
+                .orElse(false);
     }
 }
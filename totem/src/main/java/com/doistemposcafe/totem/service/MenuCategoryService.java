@@ -8,6 +8,7 @@ import com.doistemposcafe.totem.repository.MenuCategoryRepository;
 import com.doistemposcafe.totem.repository.RestaurantRepository;
 import jakarta.persistence.Entity;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -18,13 +19,16 @@ public class MenuCategoryService {
     private final MenuCategoryRepository menuCategoryRepository;
     private final MenuCategoryMapper menuCategoryMapper;
     private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public MenuCategoryService(MenuCategoryRepository menuCategoryRepository,
                                MenuCategoryMapper menuCategoryMapper,
-                               RestaurantRepository restaurantRepository) {
+                               RestaurantRepository restaurantRepository,
+                               ApplicationEventPublisher eventPublisher) {
         this.menuCategoryRepository = menuCategoryRepository;
         this.menuCategoryMapper = menuCategoryMapper;
         this.restaurantRepository = restaurantRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<MenuCategoryOutputDTO> getAllCategories() {
@@ -43,7 +47,9 @@ public class MenuCategoryService {
             entity.setRestaurant(restaurantRepository.findById(inputDTO.restaurantId()).orElse(null));
         }
 
-        return menuCategoryMapper.toOutputDTO(menuCategoryRepository.save(entity));
+        MenuCategoryOutputDTO saved = menuCategoryMapper.toOutputDTO(menuCategoryRepository.save(entity));
+        eventPublisher.publishEvent(new CatalogChangedEvent("menu-category"));
+        return saved;
     }
 
     @Transactional
@@ -56,6 +62,7 @@ public class MenuCategoryService {
                         existing.setRestaurant(restaurantRepository.findById(inputDTO.restaurantId()).orElse(null));
                     }
 
+                    eventPublisher.publishEvent(new CatalogChangedEvent("menu-category"));
                     return menuCategoryRepository.save(existing);
                 })
                 .map(menuCategoryMapper::toOutputDTO)
@@ -66,6 +73,7 @@ public class MenuCategoryService {
     public boolean deleteCategory(Long id) {
         if (menuCategoryRepository.existsById(id)) {
             menuCategoryRepository.deleteById(id);
+            eventPublisher.publishEvent(new CatalogChangedEvent("menu-category"));
             return true;
         }
         return false;
@@ -0,0 +1,173 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Output.MenuCategoryOutputDTO;
+import com.doistemposcafe.totem.dto.Output.ProductOutputDTO;
+import com.doistemposcafe.totem.dto.Output.RestaurantOutputDTO;
+import com.doistemposcafe.totem.dto.mapper.MenuCategoryMapper;
+import com.doistemposcafe.totem.dto.mapper.ProductMapper;
+import com.doistemposcafe.totem.dto.mapper.RestaurantMapper;
+import com.doistemposcafe.totem.repository.MenuCategoryRepository;
+import com.doistemposcafe.totem.repository.ProductRepository;
+import com.doistemposcafe.totem.repository.RestaurantRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Mantém em memória o cardápio já serializado em JSON, global e por restaurante.
+ * O snapshot é descartado quando o catálogo muda e reconstruído na próxima leitura,
+ * então as leituras do cardápio não passam pelo Postgres nem pelo MapStruct.
+ */
+@Service
+public class MenuSnapshotService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MenuSnapshotService.class);
+
+    private final ProductRepository productRepository;
+    private final MenuCategoryRepository menuCategoryRepository;
+    private final RestaurantRepository restaurantRepository;
+    private final ProductMapper productMapper;
+    private final MenuCategoryMapper menuCategoryMapper;
+    private final RestaurantMapper restaurantMapper;
+    private final ObjectMapper objectMapper;
+
+    private final AtomicLong version = new AtomicLong();
+    // Distinguishes ETags across restarts, when the version counter starts over
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private volatile MenuSnapshot current;
+    private final ReentrantLock rebuildLock = new ReentrantLock();
+
+    public MenuSnapshotService(ProductRepository productRepository,
+                               MenuCategoryRepository menuCategoryRepository,
+                               RestaurantRepository restaurantRepository,
+                               ProductMapper productMapper,
+                               MenuCategoryMapper menuCategoryMapper,
+                               RestaurantMapper restaurantMapper,
+                               ObjectMapper objectMapper) {
+        this.productRepository = productRepository;
+        this.menuCategoryRepository = menuCategoryRepository;
+        this.restaurantRepository = restaurantRepository;
+        this.productMapper = productMapper;
+        this.menuCategoryMapper = menuCategoryMapper;
+        this.restaurantMapper = restaurantMapper;
+        this.objectMapper = objectMapper;
+    }
+
+    public record RestaurantMenu(byte[] products, byte[] categories) {}
+
+    public record MenuSnapshot(long version,
+                               byte[] products,
+                               byte[] categories,
+                               byte[] restaurants,
+                               Map<Long, RestaurantMenu> byRestaurant) {
+
+        public RestaurantMenu forRestaurant(Long restaurantId) {
+            return byRestaurant.get(restaurantId);
+        }
+    }
+
+    public MenuSnapshot snapshot() {
+        MenuSnapshot snapshot = current;
+        if (isCurrent(snapshot)) {
+            return snapshot;
+        }
+        // A lock rather than synchronized: the rebuild queries Postgres and would pin a virtual thread
+        rebuildLock.lock();
+        try {
+            snapshot = current;
+            if (!isCurrent(snapshot)) {
+                long buildVersion = version.get();
+                snapshot = build(buildVersion);
+                // Publishing a stale build is harmless: its version no longer matches and it is never served
+                current = snapshot;
+            }
+            return snapshot;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * ETag forte do catálogo na versão informada; muda a cada escrita em produtos,
+     * categorias ou restaurantes.
+     */
+    public String eTag(long catalogVersion) {
+        return "\"" + epoch + "-" + catalogVersion + "\"";
+    }
+
+    public String currentETag() {
+        return eTag(version.get());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCatalogChanged(CatalogChangedEvent event) {
+        version.incrementAndGet();
+        current = null;
+        logger.debug("Cardápio invalidado por {}", event.source());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            snapshot();
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível pré-carregar o cardápio: {}", e.getMessage());
+        }
+    }
+
+    // The invalidation does not take rebuildLock, so a snapshot cached concurrently with a write is caught here
+    private boolean isCurrent(MenuSnapshot snapshot) {
+        return snapshot != null && snapshot.version() == version.get();
+    }
+
+    private MenuSnapshot build(long buildVersion) {
+        List<ProductOutputDTO> products = productMapper.toOutputDTOs(productRepository.findAll());
+        List<MenuCategoryOutputDTO> categories = menuCategoryMapper.toOutputDTOs(menuCategoryRepository.findAll());
+        List<RestaurantOutputDTO> restaurants = restaurantMapper.toOutputDTOs(restaurantRepository.findAll());
+
+        Map<Long, List<ProductOutputDTO>> productsByRestaurant = groupBy(products, ProductOutputDTO::restaurantId);
+        Map<Long, List<MenuCategoryOutputDTO>> categoriesByRestaurant = groupBy(categories, MenuCategoryOutputDTO::restaurantId);
+
+        Map<Long, RestaurantMenu> byRestaurant = new HashMap<>();
+        for (RestaurantOutputDTO restaurant : restaurants) {
+            byRestaurant.put(restaurant.id(), new RestaurantMenu(
+                    toJson(productsByRestaurant.getOrDefault(restaurant.id(), List.of())),
+                    toJson(categoriesByRestaurant.getOrDefault(restaurant.id(), List.of()))));
+        }
+
+        return new MenuSnapshot(buildVersion, toJson(products), toJson(categories), toJson(restaurants),
+                Map.copyOf(byRestaurant));
+    }
+
+    private <T> Map<Long, List<T>> groupBy(List<T> items, Function<T, Long> key) {
+        return items.stream()
+                .filter(item -> key.apply(item) != null)
+                .collect(Collectors.groupingBy(key));
+    }
+
+    private byte[] toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Erro ao serializar o cardápio", e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Publicado quando um pedido é criado ou quando o status de um pedido/item muda.
+ * itemId é nulo para eventos do pedido; total só é preenchido em order-created e
+ * previousStatus (do pedido ou do item) só nas mudanças de status.
+ */
+public record OrderChangedEvent(
+        String type,
+        Long restaurantId,
+        Long orderId,
+        Long itemId,
+        String previousStatus,
+        String status,
+        Double total) {
+
+    public static final String ORDER_CREATED = "order-created";
+    public static final String ORDER_STATUS_CHANGED = "order-status-changed";
+    public static final String ITEM_STATUS_CHANGED = "item-status-changed";
+}
@@ -1,18 +1,24 @@
 package com.doistemposcafe.totem.service;
 
 import com.doistemposcafe.totem.dto.Input.OrderItemInputDTO;
+import com.doistemposcafe.totem.dto.Input.StatusTransitionInputDTO;
+import com.doistemposcafe.totem.exception.StatusConflictException;
 import com.doistemposcafe.totem.dto.Output.OrderItemOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.OrderItemMapper;
+import com.doistemposcafe.totem.model.Order;
 import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.OrderItemStatus;
 import com.doistemposcafe.totem.repository.OrderItemRepository;
 import com.doistemposcafe.totem.repository.OrderRepository;
 import com.doistemposcafe.totem.repository.ProductRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
@@ -22,15 +28,21 @@ public class OrderItemService {
     private final OrderItemMapper orderItemMapper;
     private final ProductRepository productRepository;
     private final OrderRepository orderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
 
     public OrderItemService(OrderItemRepository orderItemRepository,
                             OrderItemMapper orderItemMapper,
                             ProductRepository productRepository,
-                            OrderRepository orderRepository) {
+                            OrderRepository orderRepository,
+                            ApplicationEventPublisher eventPublisher,
+                            InventoryService inventoryService) {
         this.orderItemRepository = orderItemRepository;
         this.orderItemMapper = orderItemMapper;
         this.productRepository = productRepository;
         this.orderRepository = orderRepository;
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
     }
 
     public List<OrderItemOutputDTO> getAllItems() {
@@ -53,17 +65,40 @@ public class OrderItemService {
             entity.setOrder(orderRepository.findById(inputDTO.orderId().longValue()).orElse(null));
         }
 
-        return orderItemMapper.toOutputDTO(orderItemRepository.save(entity));
+        if (entity.getStatus() != OrderItemStatus.CANCELLED) {
+            inventoryService.reserve(List.of(entity));
+        }
+
+        OrderItem saved = orderItemRepository.save(entity);
+        publishSalesChanged(saved.getOrder());
+        if (saved.getStatus() != OrderItemStatus.CANCELLED && saved.getProduct() != null && saved.getOrder() != null
+                && saved.getOrder().getRestaurant() != null) {
+            eventPublisher.publishEvent(new ProductsOrderedEvent(saved.getOrder().getRestaurant().getId(),
+                    saved.getOrder().getId(), saved.getId(),
+                    Map.of(saved.getProduct().getId(), saved.getQuantity())));
+        }
+        return orderItemMapper.toOutputDTO(saved);
     }
 
     @Transactional
     public OrderItemOutputDTO updateItem(OrderItemInputDTO inputDTO, Long id) {
         return orderItemRepository.findById(id)
                 .map(existing -> {
+                    Order previousOrder = existing.getOrder();
+                    OrderItemStatus previousStatus = existing.getStatus();
+                    OrderItemStatus target = inputDTO.status() != null
+                            ? OrderItemStatus.valueOf(inputDTO.status())
+                            : previousStatus;
+                    if (target != previousStatus) {
+                        checkTransition(previousStatus, target);
+                    }
+                    // Before quantity/product are overwritten: what the item has reserved so far
+                    List<OrderItem> reserved = stockHeldBy(existing);
+
                     existing.setName(inputDTO.name());
                     existing.setPrice(inputDTO.price());
                     existing.setQuantity(inputDTO.quantity());
-                    existing.setStatus(inputDTO.status());
+                    existing.setStatus(target);
 
                     if (inputDTO.productId() != null) {
                         existing.setProduct(productRepository.findById(inputDTO.productId().longValue()).orElse(null));
@@ -72,19 +107,90 @@ public class OrderItemService {
                     if (inputDTO.orderId() != null) {
                         existing.setOrder(orderRepository.findById(inputDTO.orderId().longValue()).orElse(null));
                     }
-
-                    return orderItemRepository.save(existing);
+                    inventoryService.adjust(reserved, stockHeldBy(existing));
+
+                    OrderItem saved = orderItemRepository.save(existing);
+                    if (previousStatus != saved.getStatus() && saved.getOrder() != null) {
+                        Order order = saved.getOrder();
+                        Long restaurantId = order.getRestaurant() != null ? order.getRestaurant().getId() : null;
+                        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.ITEM_STATUS_CHANGED,
+                                restaurantId, order.getId(), saved.getId(),
+                                previousStatus != null ? previousStatus.name() : null, saved.getStatus().name(), null));
+                    }
+                    // Quantity, price or product may have changed too
+                    publishSalesChanged(saved.getOrder());
+                    if (previousOrder != saved.getOrder()) {
+                        publishSalesChanged(previousOrder);
+                    }
+                    return saved;
                 })
                 .map(orderItemMapper::toOutputDTO)
                 .orElseThrow(() -> new RuntimeException("Item do pedido não encontrado"));
     }
 
+    /**
+     * Muda o status com um único UPDATE condicional (WHERE status = expected), sem carregar o item.
+     * Retorna false se o item não existe; lança StatusConflictException se o status já mudou.
+     */
+    @Transactional
+    public boolean transitionStatus(Long id, StatusTransitionInputDTO inputDTO) {
+        OrderItemStatus expected = OrderItemStatus.valueOf(inputDTO.expected());
+        OrderItemStatus target = OrderItemStatus.valueOf(inputDTO.target());
+        checkTransition(expected, target);
+
+        List<Object[]> updated = orderItemRepository.transitionStatus(id, expected.name(), target.name());
+        if (updated.isEmpty()) {
+            if (!orderItemRepository.existsById(id)) {
+                return false;
+            }
+            throw new StatusConflictException("O status do item não é mais " + expected + ".");
+        }
+
+        if (target == OrderItemStatus.CANCELLED) {
+            // Only cancelling needs the row: quantity and product to return to stock
+            orderItemRepository.findById(id).ifPresent(item -> inventoryService.release(List.of(item)));
+        }
+        Object[] keys = updated.get(0);
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.ITEM_STATUS_CHANGED,
+                (Long) keys[1], (Long) keys[0], id, expected.name(), target.name(), null));
+        if (target == OrderItemStatus.CANCELLED) {
+            eventPublisher.publishEvent(new SalesChangedEvent((Long) keys[0]));
+        }
+        return true;
+    }
+
     @Transactional
     public boolean deleteItem(Long id) {
-        if (orderItemRepository.existsById(id)) {
-            orderItemRepository.deleteById(id);
+        Optional<OrderItem> item = orderItemRepository.findById(id);
+        if (item.isPresent()) {
+            inventoryService.release(stockHeldBy(item.get()));
+            publishSalesChanged(item.get().getOrder());
+            orderItemRepository.delete(item.get());
             return true;
         }
         return false;
     }
+
+    // A copy, since the entity itself may be overwritten afterwards; cancelled items hold no stock
+    private static List<OrderItem> stockHeldBy(OrderItem item) {
+        if (item.getStatus() == OrderItemStatus.CANCELLED) {
+            return List.of();
+        }
+        OrderItem held = new OrderItem();
+        held.setProduct(item.getProduct());
+        held.setQuantity(item.getQuantity());
+        return List.of(held);
+    }
+
+    private void publishSalesChanged(Order order) {
+        if (order != null) {
+            eventPublisher.publishEvent(new SalesChangedEvent(order.getId()));
+        }
+    }
+
+    private void checkTransition(OrderItemStatus from, OrderItemStatus to) {
+        if (from != null && !from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("Transição de status inválida: " + from + " -> " + to);
+        }
+    }
 }
@@ -1,16 +1,30 @@
 package com.doistemposcafe.totem.service;
 
+import com.doistemposcafe.totem.dto.Input.OrderFilterInputDTO;
 import com.doistemposcafe.totem.dto.Input.OrderInputDTO;
+import com.doistemposcafe.totem.dto.Input.StatusTransitionInputDTO;
 import com.doistemposcafe.totem.dto.Output.OrderOutputDTO;
+import com.doistemposcafe.totem.dto.Output.OrderPageOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.OrderMapper;
+import com.doistemposcafe.totem.exception.StatusConflictException;
 import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.OrderItemStatus;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.repository.OrderItemRepository;
 import com.doistemposcafe.totem.repository.OrderRepository;
 import com.doistemposcafe.totem.repository.RestaurantRepository;
 import com.doistemposcafe.totem.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -18,25 +32,70 @@ import java.util.Optional;
 @Service
 public class OrderService {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     private final OrderRepository orderRepository;
     private final OrderMapper orderMapper;
     private final UserRepository userRepository;
     private final RestaurantRepository restaurantRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final InventoryService inventoryService;
+    private final OrderItemRepository orderItemRepository;
 
     public OrderService(OrderRepository orderRepository,
                         OrderMapper orderMapper,
                         UserRepository userRepository,
-                        RestaurantRepository restaurantRepository) {
+                        RestaurantRepository restaurantRepository,
+                        ApplicationEventPublisher eventPublisher,
+                        InventoryService inventoryService,
+                        OrderItemRepository orderItemRepository) {
         this.orderRepository = orderRepository;
         this.orderMapper = orderMapper;
         this.userRepository = userRepository;
         this.restaurantRepository = restaurantRepository;
+        this.eventPublisher = eventPublisher;
+        this.inventoryService = inventoryService;
+        this.orderItemRepository = orderItemRepository;
     }
 
     public List<OrderOutputDTO> getAllOrders() {
         return orderMapper.toOutputDTOs(orderRepository.findAll());
     }
 
+    /**
+     * Listagem paginada por chave (created_at, id), do mais recente para o mais antigo.
+     * O cursor é opaco para o cliente: basta repassar o nextCursor da página anterior.
+     */
+    public OrderPageOutputDTO listOrders(OrderFilterInputDTO filter, String cursor, int size) {
+        if (size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("O tamanho da página deve estar entre 1 e " + MAX_PAGE_SIZE + ".");
+        }
+
+        LocalDateTime afterCreatedAt = null;
+        Long afterId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String[] key = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+                afterCreatedAt = LocalDateTime.parse(key[0]);
+                afterId = Long.parseLong(key[1]);
+            } catch (IllegalArgumentException | DateTimeParseException | ArrayIndexOutOfBoundsException e) {
+                throw new IllegalArgumentException("Cursor inválido.");
+            }
+        }
+
+        // One extra row tells whether there is a next page without a count query
+        List<OrderOutputDTO> rows = orderRepository.findPage(filter, afterCreatedAt, afterId, size + 1);
+        if (rows.size() <= size) {
+            return new OrderPageOutputDTO(rows, null);
+        }
+
+        List<OrderOutputDTO> page = rows.subList(0, size);
+        OrderOutputDTO last = page.get(size - 1);
+        String nextCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((last.createdAt() + "|" + last.id()).getBytes(StandardCharsets.UTF_8));
+        return new OrderPageOutputDTO(List.copyOf(page), nextCursor);
+    }
+
     public OrderOutputDTO getOrderById(Long id) {
         return orderRepository.findById(id)
                 .map(orderMapper::toOutputDTO)
@@ -55,17 +114,42 @@ public class OrderService {
             entity.setRestaurant(restaurantRepository.findById(inputDTO.restaurantId()).orElse(null));
         }
 
-        return orderMapper.toOutputDTO(orderRepository.save(entity));
+        Order saved = orderRepository.save(entity);
+        publish(OrderChangedEvent.ORDER_CREATED, saved, null);
+        return orderMapper.toOutputDTO(saved);
     }
 
     @Transactional
     public OrderOutputDTO updateOrder(OrderInputDTO inputDTO, Long id) {
         return orderRepository.findById(id)
                 .map(existing -> {
+                    // Version the client read; a stale form must not overwrite a newer change
+                    if (inputDTO.version() != null && inputDTO.version() != existing.getVersion()) {
+                        throw new ObjectOptimisticLockingFailureException(Order.class, id);
+                    }
+
+                    Long previousRestaurantId = existing.getRestaurant() != null ? existing.getRestaurant().getId() : null;
+                    boolean movesRestaurant = inputDTO.restaurantId() != null && previousRestaurantId != null
+                            && !inputDTO.restaurantId().equals(previousRestaurantId);
+                    if (movesRestaurant) {
+                        // Marks the old restaurant's sales while the order still belongs to it
+                        eventPublisher.publishEvent(new SalesChangedEvent(id));
+                        eventPublisher.publishEvent(new LiveCountersStaleEvent(previousRestaurantId));
+                    }
+
                     existing.setName(inputDTO.name());
                     existing.setDescription(inputDTO.description());
                     existing.setPrice(inputDTO.price());
 
+                    OrderStatus previousStatus = existing.getStatus();
+                    if (inputDTO.status() != null) {
+                        OrderStatus target = OrderStatus.valueOf(inputDTO.status());
+                        if (target != previousStatus) {
+                            checkTransition(previousStatus, target);
+                            existing.setStatus(target);
+                        }
+                    }
+
                     if (inputDTO.userId() != null) {
                         existing.setUser(userRepository.findById(inputDTO.userId()).orElse(null));
                     }
@@ -74,18 +158,96 @@ public class OrderService {
                         existing.setRestaurant(restaurantRepository.findById(inputDTO.restaurantId()).orElse(null));
                     }
 
-                    return orderRepository.save(existing);
+                    if (existing.getStatus() == OrderStatus.CANCELLED && previousStatus != OrderStatus.CANCELLED) {
+                        cancelItems(id);
+                    }
+
+                    Order saved = orderRepository.save(existing);
+                    if (previousStatus != saved.getStatus()) {
+                        publish(OrderChangedEvent.ORDER_STATUS_CHANGED, saved, previousStatus);
+                    }
+                    if (movesRestaurant) {
+                        eventPublisher.publishEvent(new SalesChangedEvent(id));
+                        eventPublisher.publishEvent(new LiveCountersStaleEvent(inputDTO.restaurantId()));
+                    }
+                    return saved;
                 })
                 .map(orderMapper::toOutputDTO)
                 .orElseThrow(() -> new RuntimeException("Pedido não encontrado"));
     }
 
+    /**
+     * Muda o status com um único UPDATE condicional (WHERE status = expected), sem carregar o pedido.
+     * Retorna false se o pedido não existe; lança StatusConflictException se o status já mudou.
+     */
+    @Transactional
+    public boolean transitionStatus(Long id, StatusTransitionInputDTO inputDTO) {
+        OrderStatus expected = OrderStatus.valueOf(inputDTO.expected());
+        OrderStatus target = OrderStatus.valueOf(inputDTO.target());
+        checkTransition(expected, target);
+
+        List<Long> restaurant = orderRepository.transitionStatus(id, expected.name(), target.name());
+        if (restaurant.isEmpty()) {
+            if (!orderRepository.existsById(id)) {
+                return false;
+            }
+            throw new StatusConflictException("O status do pedido não é mais " + expected + ".");
+        }
+
+        if (target == OrderStatus.CANCELLED) {
+            cancelItems(id);
+        }
+        eventPublisher.publishEvent(new OrderChangedEvent(OrderChangedEvent.ORDER_STATUS_CHANGED,
+                restaurant.get(0), id, null, expected.name(), target.name(), null));
+        return true;
+    }
+
     @Transactional
     public boolean deleteOrder(Long id) {
-        if (orderRepository.existsById(id)) {
-            orderRepository.deleteById(id);
+        Optional<Order> order = orderRepository.findById(id);
+        if (order.isPresent()) {
+            // Published first: the sales mark is read from the order row
+            eventPublisher.publishEvent(new SalesChangedEvent(id));
+            if (order.get().getRestaurant() != null) {
+                eventPublisher.publishEvent(new LiveCountersStaleEvent(order.get().getRestaurant().getId()));
+            }
+            inventoryService.release(order.get().getItems().stream()
+                    .filter(item -> item.getStatus() != OrderItemStatus.CANCELLED)
+                    .toList());
+            orderRepository.delete(order.get());
             return true;
         }
         return false;
     }
+
+    /**
+     * Cancela junto com o pedido os itens que ainda não estavam cancelados e devolve o estoque deles.
+     * Um item que já está CANCELLED não volta a mexer no estoque, então nenhuma mudança posterior
+     * nos itens devolve a mesma quantidade de novo.
+     */
+    private void cancelItems(Long orderId) {
+        // Conditional UPDATE: an item cancelled on its own at the same time is returned only once
+        List<Long> cancelled = orderItemRepository.cancelByOrderId(orderId);
+        if (cancelled.isEmpty()) {
+            return;
+        }
+        List<OrderItem> items = orderItemRepository.findAllById(cancelled);
+        // Items already in the persistence context still hold the old status
+        items.forEach(item -> item.setStatus(OrderItemStatus.CANCELLED));
+        inventoryService.release(items);
+    }
+
+    private void publish(String type, Order order, OrderStatus previousStatus) {
+        Long restaurantId = order.getRestaurant() != null ? order.getRestaurant().getId() : null;
+        String status = order.getStatus() != null ? order.getStatus().name() : null;
+        Double total = OrderChangedEvent.ORDER_CREATED.equals(type) ? order.getTotal() : null;
+        eventPublisher.publishEvent(new OrderChangedEvent(type, restaurantId, order.getId(), null,
+                previousStatus != null ? previousStatus.name() : null, status, total));
+    }
+
+    private void checkTransition(OrderStatus from, OrderStatus to) {
+        if (from != null && !from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("Transição de status inválida: " + from + " -> " + to);
+        }
+    }
 }
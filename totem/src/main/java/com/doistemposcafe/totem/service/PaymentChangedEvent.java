@@ -0,0 +1,32 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.model.Payment;
+
+import java.time.LocalDateTime;
+
+/**
+ * Publicado quando um pagamento é criado, alterado ou excluído, com o estado antes e depois da
+ * mudança (before é nulo na criação e after na exclusão), para que quem soma pagamentos possa
+ * desfazer a contribuição antiga e aplicar a nova.
+ */
+public record PaymentChangedEvent(Long paymentId, State before, State after) {
+
+    public record State(
+            Long orderId,
+            Long restaurantId,
+            String status,
+            double amount,
+            LocalDateTime paymentDate) {
+
+        public static State of(Payment payment) {
+            Long orderId = payment.getOrder() != null ? payment.getOrder().getId() : null;
+            Long restaurantId = payment.getOrder() != null && payment.getOrder().getRestaurant() != null
+                    ? payment.getOrder().getRestaurant().getId()
+                    : null;
+            return new State(orderId, restaurantId,
+                    payment.getStatus() != null ? payment.getStatus().name() : null,
+                    payment.getAmount(),
+                    payment.getPaymentDate());
+        }
+    }
+}
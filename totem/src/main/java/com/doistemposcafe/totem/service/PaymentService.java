@@ -1,17 +1,23 @@
 package com.doistemposcafe.totem.service;
 
 import com.doistemposcafe.totem.dto.Input.PaymentInputDTO;
+import com.doistemposcafe.totem.dto.Input.StatusTransitionInputDTO;
 import com.doistemposcafe.totem.dto.Output.PaymentOutputDTO;
 import com.doistemposcafe.totem.dto.mapper.PaymentMapper;
+import com.doistemposcafe.totem.exception.StatusConflictException;
 import com.doistemposcafe.totem.model.Order;
 import com.doistemposcafe.totem.model.Payment;
+import com.doistemposcafe.totem.model.PaymentStatus;
 import com.doistemposcafe.totem.repository.OrderRepository;
 import com.doistemposcafe.totem.repository.PaymentRepository;
 import com.doistemposcafe.totem.repository.UserRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -23,15 +29,18 @@ public class PaymentService {
     private final PaymentMapper paymentMapper;
     private final OrderRepository orderRepository;
     private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public PaymentService(PaymentRepository paymentRepository,
                           PaymentMapper paymentMapper,
                           OrderRepository orderRepository,
-                          UserRepository userRepository) {
+                          UserRepository userRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.paymentRepository = paymentRepository;
         this.paymentMapper = paymentMapper;
         this.orderRepository = orderRepository;
         this.userRepository = userRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<PaymentOutputDTO> getAllPayments() {
@@ -45,39 +54,89 @@ public class PaymentService {
     @Transactional
     public PaymentOutputDTO savePayment(PaymentInputDTO inputDTO) {
         Payment entity = paymentMapper.toEntity(inputDTO);
+        // payment_date is NOT NULL and the input has no date
+        entity.setPaymentDate(LocalDateTime.now());
 
         if (inputDTO.orderId() != null) {
             entity.setOrder(orderRepository.findById(inputDTO.orderId()).orElse(null));
         }
 
-        return paymentMapper.toOutputDTO(paymentRepository.save(entity));
+        Payment saved = paymentRepository.save(entity);
+        eventPublisher.publishEvent(new PaymentChangedEvent(saved.getId(), null, PaymentChangedEvent.State.of(saved)));
+        return paymentMapper.toOutputDTO(saved);
     }
 
     @Transactional
     public PaymentOutputDTO updatePayment(PaymentInputDTO inputDTO, Long id) {
         return paymentRepository.findById(id)
                 .map(existing -> {
+                    PaymentChangedEvent.State before = PaymentChangedEvent.State.of(existing);
                     existing.setMethod(inputDTO.method());
                     existing.setAmount(inputDTO.amount());
-                    existing.setStatus(inputDTO.status());
+                    if (inputDTO.status() != null) {
+                        PaymentStatus target = PaymentStatus.valueOf(inputDTO.status());
+                        if (target != existing.getStatus()) {
+                            checkTransition(existing.getStatus(), target);
+                            existing.setStatus(target);
+                        }
+                    }
                     existing.setTransactionId(inputDTO.transactionId());
 
                     if (inputDTO.orderId() != null) {
                         existing.setOrder(orderRepository.findById(inputDTO.orderId()).orElse(null));
                     }
 
-                    return paymentRepository.save(existing);
+                    Payment saved = paymentRepository.save(existing);
+                    eventPublisher.publishEvent(new PaymentChangedEvent(id, before, PaymentChangedEvent.State.of(saved)));
+                    return saved;
                 })
                 .map(paymentMapper::toOutputDTO)
                 .orElseThrow(() -> new RuntimeException("Pagamento não encontrado"));
     }
 
+    /**
+     * Muda o status com um único UPDATE condicional (WHERE status = expected), sem carregar o pagamento.
+     * Retorna false se o pagamento não existe; lança StatusConflictException se o status já mudou.
+     */
+    @Transactional
+    public boolean transitionStatus(Long id, StatusTransitionInputDTO inputDTO) {
+        PaymentStatus expected = PaymentStatus.valueOf(inputDTO.expected());
+        PaymentStatus target = PaymentStatus.valueOf(inputDTO.target());
+        checkTransition(expected, target);
+
+        List<Object[]> updated = paymentRepository.transitionStatus(id, expected.name(), target.name());
+        if (updated.isEmpty()) {
+            if (!paymentRepository.existsById(id)) {
+                return false;
+            }
+            throw new StatusConflictException("O status do pagamento não é mais " + expected + ".");
+        }
+        Object[] row = updated.get(0);
+        Long orderId = (Long) row[0];
+        Long restaurantId = (Long) row[1];
+        double amount = ((Number) row[2]).doubleValue();
+        LocalDateTime paymentDate = ((Timestamp) row[3]).toLocalDateTime();
+        eventPublisher.publishEvent(new PaymentChangedEvent(id,
+                new PaymentChangedEvent.State(orderId, restaurantId, expected.name(), amount, paymentDate),
+                new PaymentChangedEvent.State(orderId, restaurantId, target.name(), amount, paymentDate)));
+        return true;
+    }
+
     @Transactional
     public boolean deletePayment(Long id) {
-        if (paymentRepository.existsById(id)) {
-            paymentRepository.deleteById(id);
+        Optional<Payment> payment = paymentRepository.findById(id);
+        if (payment.isPresent()) {
+            // Published first: listeners may read the order the payment belongs to
+            eventPublisher.publishEvent(new PaymentChangedEvent(id, PaymentChangedEvent.State.of(payment.get()), null));
+            paymentRepository.delete(payment.get());
             return true;
         }
         return false;
     }
+
+    private void checkTransition(PaymentStatus from, PaymentStatus to) {
+        if (from != null && !from.canTransitionTo(to)) {
+            throw new IllegalArgumentException("Transição de status inválida: " + from + " -> " + to);
+        }
+    }
 }
@@ -9,6 +9,7 @@ import com.doistemposcafe.totem.repository.ProductRepository;
 import com.doistemposcafe.totem.repository.RestaurantRepository;
 import jakarta.transaction.Transactional;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.Collections;
@@ -22,15 +23,18 @@ public class ProductService {
     private final ProductMapper productMapper;
     private final RestaurantRepository restaurantRepository;
     private final MenuCategoryRepository menuCategoryRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public ProductService(ProductRepository productRepository,
                           ProductMapper productMapper,
                           RestaurantRepository restaurantRepository,
-                          MenuCategoryRepository menuCategoryRepository) {
+                          MenuCategoryRepository menuCategoryRepository,
+                          ApplicationEventPublisher eventPublisher) {
         this.productRepository = productRepository;
         this.productMapper = productMapper;
         this.restaurantRepository = restaurantRepository;
         this.menuCategoryRepository = menuCategoryRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<ProductOutputDTO> getAllProducts() {
@@ -53,7 +57,9 @@ public class ProductService {
             entity.setMenuCategory(menuCategoryRepository.findById(Long.valueOf(inputDTO.menuCategoryId())).orElse(null));
         }
 
-        return productMapper.toOutputDTO(productRepository.save(entity));
+        ProductOutputDTO saved = productMapper.toOutputDTO(productRepository.save(entity));
+        eventPublisher.publishEvent(new CatalogChangedEvent("product"));
+        return saved;
     }
 
     @Transactional
@@ -75,6 +81,8 @@ public class ProductService {
                         existing.setMenuCategory(menuCategoryRepository.findById(Long.valueOf(inputDTO.menuCategoryId())).orElse(null));
                     }
 
+                    eventPublisher.publishEvent(new CatalogChangedEvent("product"));
+                    eventPublisher.publishEvent(new StockChangedEvent(existing.getId()));
                     return productRepository.save(existing);
                 })
                 .map(productMapper::toOutputDTO)
@@ -85,6 +93,8 @@ public class ProductService {
     public boolean deleteProduct(Long id) {
         if (productRepository.existsById(id)) {
             productRepository.deleteById(id);
+            eventPublisher.publishEvent(new CatalogChangedEvent("product"));
+            eventPublisher.publishEvent(new StockChangedEvent(id));
             return true;
         }
         return false;
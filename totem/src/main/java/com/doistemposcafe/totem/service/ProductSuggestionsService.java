@@ -0,0 +1,278 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Output.SuggestedProductOutputDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * "Peça também" no totem: para cada restaurante, uma CoOccurrenceMatrix com os produtos pedidos juntos.
+ * É atualizada depois do commit a cada item que entra em um pedido e reconstruída na subida com o
+ * histórico, em paralelo no ForkJoinPool comum. A consulta só lê a linha do produto em memória.
+ * Cancelamentos não descontam nada; a próxima reconstrução os deixa de fora.
+ *
+ * Para cada pedido das últimas order-tracking-hours horas guarda os produtos que já entraram na
+ * matriz. Tanto o evento quanto a reconstrução somam só a diferença, trocada atomicamente por
+ * pedido, então itens salvos ao mesmo tempo, ou entre a subida e a reconstrução, contam uma vez.
+ */
+@Service
+public class ProductSuggestionsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ProductSuggestionsService.class);
+
+    // Orders per fork-join leaf
+    private static final int BUILD_THRESHOLD = 2048;
+    private static final long[] NONE = new long[0];
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int historyDays;
+    private final int minSupport;
+    private final int maxSuggestions;
+    private final Duration cacheMaxAge;
+    private final long trackingMillis;
+
+    private final Map<Long, CoOccurrenceMatrix> byRestaurant = new ConcurrentHashMap<>();
+    private final Map<Long, CountedOrder> countedByOrder = new ConcurrentHashMap<>();
+
+    public ProductSuggestionsService(NamedParameterJdbcTemplate jdbcTemplate,
+                                     @Value("${suggestions.history-days:90}") int historyDays,
+                                     @Value("${suggestions.min-support:2}") int minSupport,
+                                     @Value("${suggestions.max-suggestions:20}") int maxSuggestions,
+                                     @Value("${suggestions.cache-max-age-seconds:60}") long cacheMaxAgeSeconds,
+                                     @Value("${suggestions.order-tracking-hours:24}") int orderTrackingHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.historyDays = historyDays;
+        this.minSupport = minSupport;
+        this.maxSuggestions = maxSuggestions;
+        this.cacheMaxAge = Duration.ofSeconds(cacheMaxAgeSeconds);
+        this.trackingMillis = Duration.ofHours(orderTrackingHours).toMillis();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsOrdered(ProductsOrderedEvent event) {
+        if (event.restaurantId() == null || event.orderId() == null || event.quantityByProduct().isEmpty()) {
+            return;
+        }
+        Addition addition;
+        if (event.itemId() == null) {
+            // Checkout: the event carries the whole basket of an order created just now
+            long[] basket = event.quantityByProduct().keySet().stream().mapToLong(Long::longValue).toArray();
+            addition = claim(event.orderId(), System.currentTimeMillis(), basket, NONE);
+        } else {
+            addition = claimItem(event.orderId(), event.itemId());
+        }
+        matrix(event.restaurantId()).addProducts(addition.added(), addition.prior());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível carregar as sugestões de produtos: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Soma às matrizes os pedidos não cancelados dos últimos history-days dias. Feita uma vez, na
+     * subida; dos pedidos recentes soma só o que os eventos ainda não somaram, e os itens que chegam
+     * enquanto ela roda entram pelo evento e não se perdem.
+     */
+    public void rebuild() {
+        long start = System.nanoTime();
+        MapSqlParameterSource params = new MapSqlParameterSource("since",
+                new Timestamp(System.currentTimeMillis() - Duration.ofDays(historyDays).toMillis()));
+        Map<Long, List<Addition>> basketsByRestaurant = new HashMap<>();
+        BasketReader reader = new BasketReader(basketsByRestaurant, System.currentTimeMillis() - trackingMillis);
+        jdbcTemplate.query("SELECT o.restaurant_id, i.order_id, i.product_id, o.created_at FROM orders_product i"
+                        + " JOIN orders o ON o.id = i.order_id"
+                        + " WHERE o.created_at >= :since AND o.status <> 'CANCELLED'"
+                        + " AND i.status IS DISTINCT FROM 'CANCELLED'"
+                        + " ORDER BY i.order_id", params,
+                rs -> {
+                    reader.add(rs.getLong(1), rs.getLong(2), rs.getLong(3), rs.getTimestamp(4).getTime());
+                });
+        reader.flush();
+
+        int orders = 0;
+        for (Map.Entry<Long, List<Addition>> restaurant : basketsByRestaurant.entrySet()) {
+            List<Addition> baskets = restaurant.getValue();
+            matrix(restaurant.getKey()).addAll(ForkJoinPool.commonPool().invoke(new BuildTask(baskets, 0, baskets.size())));
+            orders += baskets.size();
+        }
+        logger.info("Sugestões de produtos carregadas: {} pedidos de {} restaurantes em {} ms",
+                orders, basketsByRestaurant.size(), Duration.ofNanos(System.nanoTime() - start).toMillis());
+    }
+
+    public List<SuggestedProductOutputDTO> getSuggestions(Long restaurantId, Long productId, int limit) {
+        if (limit < 1 || limit > maxSuggestions) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + maxSuggestions + ".");
+        }
+        // Public endpoint: unknown restaurants must not create matrices
+        CoOccurrenceMatrix matrix = byRestaurant.get(restaurantId);
+        if (matrix == null || productId == null) {
+            return List.of();
+        }
+        return matrix.suggest(productId, limit, minSupport).stream()
+                .map(suggestion -> new SuggestedProductOutputDTO(suggestion.productId(), suggestion.together(),
+                        suggestion.confidence(), suggestion.lift()))
+                .toList();
+    }
+
+    public Duration getCacheMaxAge() {
+        return cacheMaxAge;
+    }
+
+    @Scheduled(fixedDelayString = "${suggestions.cleanup-interval-ms:600000}")
+    public void evictOldOrders() {
+        long trackedSince = System.currentTimeMillis() - trackingMillis;
+        countedByOrder.values().removeIf(order -> order.createdAt() < trackedSince);
+    }
+
+    private CoOccurrenceMatrix matrix(Long restaurantId) {
+        return byRestaurant.computeIfAbsent(restaurantId, id -> new CoOccurrenceMatrix());
+    }
+
+    // Re-reads the order's committed items: another item saved at the same time may already be there
+    private Addition claimItem(long orderId, long itemId) {
+        List<Long> products = new ArrayList<>();
+        List<Long> others = new ArrayList<>();
+        long[] createdAt = {0};
+        jdbcTemplate.query("SELECT i.id, i.product_id, o.created_at FROM orders_product i"
+                        + " JOIN orders o ON o.id = i.order_id"
+                        + " WHERE i.order_id = :orderId AND i.product_id IS NOT NULL"
+                        + " AND i.status IS DISTINCT FROM 'CANCELLED'",
+                new MapSqlParameterSource("orderId", orderId),
+                rs -> {
+                    products.add(rs.getLong(2));
+                    if (rs.getLong(1) != itemId) {
+                        others.add(rs.getLong(2));
+                    }
+                    Timestamp created = rs.getTimestamp(3);
+                    createdAt[0] = created != null ? created.getTime() : 0;
+                });
+        if (products.isEmpty()) {
+            return new Addition(NONE, NONE);
+        }
+        // Past the tracking window the order's entry may be evicted: take its other items as counted
+        long[] assumedCounted = createdAt[0] >= System.currentTimeMillis() - trackingMillis ? NONE : distinct(others);
+        return claim(orderId, createdAt[0], distinct(products), assumedCounted);
+    }
+
+    /**
+     * Registra basket como contado no pedido e retorna o que falta somar à matriz. A troca é atômica
+     * por pedido: quem chega depois só vê os produtos que o outro ainda não contou.
+     */
+    private Addition claim(long orderId, long createdAt, long[] basket, long[] assumedCounted) {
+        Addition[] addition = new Addition[1];
+        countedByOrder.compute(orderId, (id, counted) -> {
+            long[] prior = counted != null ? counted.products() : assumedCounted;
+            long[] added = Arrays.stream(basket)
+                    .filter(product -> Arrays.stream(prior).noneMatch(other -> other == product))
+                    .toArray();
+            addition[0] = new Addition(added, prior);
+            long[] products = Arrays.copyOf(prior, prior.length + added.length);
+            System.arraycopy(added, 0, products, prior.length, added.length);
+            return new CountedOrder(createdAt, products);
+        });
+        return addition[0];
+    }
+
+    private static long[] distinct(List<Long> products) {
+        return products.stream().mapToLong(Long::longValue).distinct().toArray();
+    }
+
+    /** Produtos de um pedido já somados à matriz. */
+    private record CountedOrder(long createdAt, long[] products) {}
+
+    /** Produtos added a somar a um pedido que já tinha os produtos prior. */
+    private record Addition(long[] added, long[] prior) {}
+
+    // Rows arrive ordered by order id; each order becomes one basket of distinct products
+    private final class BasketReader {
+        private final Map<Long, List<Addition>> basketsByRestaurant;
+        private final long trackedSince;
+        private final List<Long> products = new ArrayList<>();
+        private long restaurantId;
+        private long orderId;
+        private long createdAt;
+
+        BasketReader(Map<Long, List<Addition>> basketsByRestaurant, long trackedSince) {
+            this.basketsByRestaurant = basketsByRestaurant;
+            this.trackedSince = trackedSince;
+        }
+
+        void add(long restaurantId, long orderId, long productId, long createdAt) {
+            if (orderId != this.orderId) {
+                flush();
+                this.restaurantId = restaurantId;
+                this.orderId = orderId;
+                this.createdAt = createdAt;
+            }
+            products.add(productId);
+        }
+
+        void flush() {
+            if (!products.isEmpty()) {
+                long[] basket = distinct(products);
+                // Events may already have counted part of a recent order
+                Addition addition = createdAt >= trackedSince
+                        ? claim(orderId, createdAt, basket, NONE)
+                        : new Addition(basket, NONE);
+                if (addition.added().length > 0) {
+                    basketsByRestaurant.computeIfAbsent(restaurantId, id -> new ArrayList<>()).add(addition);
+                }
+                products.clear();
+            }
+        }
+    }
+
+    private static final class BuildTask extends RecursiveTask<CoOccurrenceMatrix> {
+        private final List<Addition> baskets;
+        private final int from;
+        private final int to;
+
+        BuildTask(List<Addition> baskets, int from, int to) {
+            this.baskets = baskets;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected CoOccurrenceMatrix compute() {
+            if (to - from <= BUILD_THRESHOLD) {
+                CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+                for (int i = from; i < to; i++) {
+                    matrix.addProducts(baskets.get(i).added(), baskets.get(i).prior());
+                }
+                return matrix;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(baskets, from, middle);
+            left.fork();
+            CoOccurrenceMatrix right = new BuildTask(baskets, middle, to).compute();
+            CoOccurrenceMatrix merged = left.join();
+            merged.addAll(right);
+            return merged;
+        }
+    }
+}
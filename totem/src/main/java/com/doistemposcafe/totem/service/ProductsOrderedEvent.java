@@ -0,0 +1,10 @@
+package com.doistemposcafe.totem.service;
+
+import java.util.Map;
+
+/**
+ * Publicado quando itens entram em um pedido, com a quantidade por produto. itemId é o item avulso
+ * salvo; nulo quando o pedido inteiro acabou de ser criado (checkout).
+ */
+public record ProductsOrderedEvent(Long restaurantId, Long orderId, Long itemId,
+                                   Map<Long, Integer> quantityByProduct) {}
@@ -7,6 +7,7 @@ import com.doistemposcafe.totem.model.Restaurant;
 import com.doistemposcafe.totem.repository.ManagerRepository;
 import com.doistemposcafe.totem.repository.RestaurantRepository;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDateTime;
@@ -18,12 +19,15 @@ public class RestaurantService {
     private final RestaurantRepository restaurantRepository;
     private final RestaurantMapper restaurantMapper;
     private final ManagerRepository managerRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public RestaurantService(RestaurantRepository restaurantRepository,
-                             RestaurantMapper restaurantMapper, ManagerRepository managerRepository) {
+                             RestaurantMapper restaurantMapper, ManagerRepository managerRepository,
+                             ApplicationEventPublisher eventPublisher) {
         this.restaurantRepository = restaurantRepository;
         this.restaurantMapper = restaurantMapper;
         this.managerRepository = managerRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<RestaurantOutputDTO> getRestaurants() {
@@ -39,7 +43,9 @@ public class RestaurantService {
     @Transactional
     public RestaurantOutputDTO saveRestaurant(RestaurantInputDTO inputDTO) {
         Restaurant entity = restaurantMapper.toEntity(inputDTO);
-        return restaurantMapper.toOutputDTO(restaurantRepository.save(entity));
+        RestaurantOutputDTO saved = restaurantMapper.toOutputDTO(restaurantRepository.save(entity));
+        eventPublisher.publishEvent(new CatalogChangedEvent("restaurant"));
+        return saved;
     }
 
     @Transactional
@@ -58,6 +64,7 @@ public class RestaurantService {
                         existing.setManager(managerRepository.findById(inputDTO.managerId()).orElse(null));
                     }
 
+                    eventPublisher.publishEvent(new CatalogChangedEvent("restaurant"));
                     return restaurantRepository.save(existing);
                 })
                 .map(restaurantMapper::toOutputDTO)
@@ -68,6 +75,7 @@ public class RestaurantService {
     public boolean deleteRestaurant(Long id) {
         if (restaurantRepository.existsById(id)) {
             restaurantRepository.deleteById(id);
+            eventPublisher.publishEvent(new CatalogChangedEvent("restaurant"));
             return true;
         }
         return false;
@@ -0,0 +1,8 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Publicado quando muda algo que entra nos relatórios de vendas sem passar por OrderChangedEvent
+ * ou PaymentChangedEvent (itens editados, pedido excluído ou movido de restaurante). Deve ser
+ * publicado antes de uma exclusão, enquanto o pedido ainda existe.
+ */
+public record SalesChangedEvent(Long orderId) {}
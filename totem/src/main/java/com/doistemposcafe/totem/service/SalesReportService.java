@@ -0,0 +1,134 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Output.ProductSalesOutputDTO;
+import com.doistemposcafe.totem.dto.Output.SalesReportOutputDTO;
+import com.doistemposcafe.totem.model.ReportPeriod;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Relatórios de vendas lidos apenas de sales_rollup e product_sales_rollup; nenhuma consulta
+ * toca orders, orders_product ou payment. Os números acompanham o SalesRollupService, que
+ * consolida as mudanças a cada poucos segundos.
+ */
+@Service
+public class SalesReportService {
+
+    private static final int MAX_PRODUCTS = 100;
+    // Dimensions a sales report may be broken down by, mapped to their rollup column
+    private static final Map<String, String> GROUP_COLUMNS = Map.of(
+            "consumptionMethod", "consumption_method",
+            "paymentMethod", "payment_method");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public SalesReportService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Vendas por hora ou por dia entre from (inclusive) e to (exclusivo). Sem groupBy, cada período
+     * traz o total de todas as formas de consumo e de pagamento.
+     */
+    public List<SalesReportOutputDTO> getSales(Long restaurantId, String period, LocalDateTime from,
+                                               LocalDateTime to, List<String> groupBy) {
+        List<String> dimensions = groupBy != null ? groupBy : List.of();
+        for (String dimension : dimensions) {
+            if (!GROUP_COLUMNS.containsKey(dimension)) {
+                throw new IllegalArgumentException("Agrupamento inválido: " + dimension
+                        + ". Use consumptionMethod ou paymentMethod.");
+            }
+        }
+        boolean byConsumption = dimensions.contains("consumptionMethod");
+        boolean byPayment = dimensions.contains("paymentMethod");
+        MapSqlParameterSource params = params(restaurantId, period, from, to);
+
+        String sql = "SELECT bucket_start,"
+                + (byConsumption ? " consumption_method," : " NULL AS consumption_method,")
+                + (byPayment ? " payment_method," : " NULL AS payment_method,")
+                + " sum(order_count) AS orders, sum(units) AS units, sum(revenue) AS revenue"
+                + " FROM sales_rollup" + where(restaurantId)
+                + " GROUP BY bucket_start" + (byConsumption ? ", consumption_method" : "") + (byPayment ? ", payment_method" : "")
+                + " ORDER BY bucket_start" + (byConsumption ? ", consumption_method" : "") + (byPayment ? ", payment_method" : "");
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> {
+            long orders = rs.getLong("orders");
+            double revenue = rs.getDouble("revenue");
+            return new SalesReportOutputDTO(
+                    rs.getTimestamp("bucket_start").toLocalDateTime(),
+                    rs.getString("consumption_method"),
+                    rs.getString("payment_method"),
+                    orders,
+                    rs.getLong("units"),
+                    revenue,
+                    orders > 0 ? revenue / orders : 0);
+        });
+    }
+
+    /**
+     * Produtos mais vendidos (por faturamento) entre from e to, somando os períodos da granularidade pedida.
+     */
+    public List<ProductSalesOutputDTO> getTopProducts(Long restaurantId, String period, LocalDateTime from,
+                                                      LocalDateTime to, int limit) {
+        if (limit < 1 || limit > MAX_PRODUCTS) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + MAX_PRODUCTS + ".");
+        }
+        MapSqlParameterSource params = params(restaurantId, period, from, to).addValue("limit", limit);
+
+        // The product table is only read for the names of the rows already selected
+        String sql = "SELECT r.product_id, p.name, r.orders, r.units, r.revenue FROM ("
+                + " SELECT product_id, sum(order_count) AS orders, sum(units) AS units, sum(revenue) AS revenue"
+                + " FROM product_sales_rollup" + where(restaurantId)
+                + " GROUP BY product_id ORDER BY revenue DESC, product_id LIMIT :limit) r"
+                + " LEFT JOIN product p ON p.id = r.product_id"
+                + " ORDER BY r.revenue DESC, r.product_id";
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> new ProductSalesOutputDTO(
+                rs.getLong("product_id"),
+                rs.getString("name"),
+                rs.getLong("orders"),
+                rs.getLong("units"),
+                rs.getDouble("revenue")));
+    }
+
+    private MapSqlParameterSource params(Long restaurantId, String period, LocalDateTime from, LocalDateTime to) {
+        ReportPeriod reportPeriod = parsePeriod(period);
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = reportPeriod.truncate(from != null ? from
+                : end.minus(reportPeriod == ReportPeriod.HOUR ? Duration.ofDays(1) : Duration.ofDays(7)));
+        if (!start.isBefore(end)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim.");
+        }
+        if (Duration.between(start, end).compareTo(reportPeriod.getMaxRange()) > 0) {
+            throw new IllegalArgumentException("Período longo demais para " + reportPeriod
+                    + ": no máximo " + reportPeriod.getMaxRange().toDays() + " dias.");
+        }
+        return new MapSqlParameterSource()
+                .addValue("period", reportPeriod.name())
+                .addValue("restaurantId", restaurantId)
+                .addValue("from", Timestamp.valueOf(start))
+                .addValue("to", Timestamp.valueOf(end));
+    }
+
+    private static String where(Long restaurantId) {
+        return " WHERE period = :period AND bucket_start >= :from AND bucket_start < :to"
+                + (restaurantId != null ? " AND restaurant_id = :restaurantId" : "");
+    }
+
+    private static ReportPeriod parsePeriod(String period) {
+        if (period == null) {
+            return ReportPeriod.DAY;
+        }
+        try {
+            return ReportPeriod.valueOf(period.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Período inválido: " + period + ". Use HOUR ou DAY.");
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.ReportPeriod;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Mantém sales_rollup e product_sales_rollup. Pedidos, pagamentos e itens não somam nada na hora:
+ * gravam em sales_rollup_dirty, na própria transação, a hora do restaurante que mudou, e o refresh
+ * recalcula só essas horas a partir das tabelas de origem (e os dias que as contêm a partir das horas).
+ * Recalcular em vez de somar deltas deixa o resultado certo para qualquer caminho — cancelamento,
+ * estorno, edição ou exclusão — e torna o backfill apenas mais horas marcadas.
+ */
+@Service
+public class SalesRollupService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SalesRollupService.class);
+
+    // Non-cancelled orders of one restaurant-hour with their completed payments
+    private static final String PAID_ORDERS = "WITH paid AS ("
+            + " SELECT o.id, o.consumption_method, min(p.method) AS payment_method, sum(p.amount) AS amount"
+            + " FROM orders o JOIN payment p ON p.order_id = o.id AND p.status = 'COMPLETED'"
+            + " WHERE o.restaurant_id = :restaurantId AND o.created_at >= :start AND o.created_at < :end"
+            + " AND o.status <> 'CANCELLED'"
+            + " GROUP BY o.id, o.consumption_method)";
+
+    private static final String HOUR_SALES = PAID_ORDERS + ", units AS ("
+            + " SELECT i.order_id, sum(i.quantity) AS units FROM orders_product i JOIN paid ON paid.id = i.order_id"
+            + " WHERE i.status IS DISTINCT FROM 'CANCELLED' GROUP BY i.order_id)"
+            + " INSERT INTO sales_rollup (period, bucket_start, restaurant_id, consumption_method, payment_method,"
+            + " order_count, units, revenue)"
+            + " SELECT 'HOUR', :start, :restaurantId, paid.consumption_method, paid.payment_method,"
+            + " count(*), coalesce(sum(units.units), 0), sum(paid.amount)"
+            + " FROM paid LEFT JOIN units ON units.order_id = paid.id"
+            + " GROUP BY paid.consumption_method, paid.payment_method";
+
+    private static final String HOUR_PRODUCT_SALES = PAID_ORDERS
+            + " INSERT INTO product_sales_rollup (period, bucket_start, restaurant_id, product_id, consumption_method,"
+            + " payment_method, order_count, units, revenue)"
+            + " SELECT 'HOUR', :start, :restaurantId, i.product_id, paid.consumption_method, paid.payment_method,"
+            + " count(DISTINCT paid.id), sum(i.quantity), sum(i.price * i.quantity)"
+            + " FROM paid JOIN orders_product i ON i.order_id = paid.id"
+            + " WHERE i.status IS DISTINCT FROM 'CANCELLED'"
+            + " GROUP BY i.product_id, paid.consumption_method, paid.payment_method";
+
+    // Each order belongs to exactly one hour, so summing the hours gives the day
+    private static final String DAY_SALES = "INSERT INTO sales_rollup (period, bucket_start, restaurant_id,"
+            + " consumption_method, payment_method, order_count, units, revenue)"
+            + " SELECT 'DAY', :start, restaurant_id, consumption_method, payment_method,"
+            + " sum(order_count), sum(units), sum(revenue) FROM sales_rollup"
+            + " WHERE period = 'HOUR' AND restaurant_id = :restaurantId AND bucket_start >= :start AND bucket_start < :end"
+            + " GROUP BY restaurant_id, consumption_method, payment_method";
+
+    private static final String DAY_PRODUCT_SALES = "INSERT INTO product_sales_rollup (period, bucket_start,"
+            + " restaurant_id, product_id, consumption_method, payment_method, order_count, units, revenue)"
+            + " SELECT 'DAY', :start, restaurant_id, product_id, consumption_method, payment_method,"
+            + " sum(order_count), sum(units), sum(revenue) FROM product_sales_rollup"
+            + " WHERE period = 'HOUR' AND restaurant_id = :restaurantId AND bucket_start >= :start AND bucket_start < :end"
+            + " GROUP BY restaurant_id, product_id, consumption_method, payment_method";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final boolean backfillOnStartup;
+
+    public SalesRollupService(NamedParameterJdbcTemplate jdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${sales-rollup.batch-size:200}") int batchSize,
+                              @Value("${sales-rollup.backfill-on-startup:true}") boolean backfillOnStartup) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = batchSize;
+        this.backfillOnStartup = backfillOnStartup;
+    }
+
+    // Synchronous on purpose: the mark commits or rolls back together with the change
+    @EventListener
+    public void onOrderChanged(OrderChangedEvent change) {
+        // Kitchen progress does not change sales; only new orders and cancellations do
+        if (OrderChangedEvent.ORDER_CREATED.equals(change.type())
+                || OrderStatus.CANCELLED.name().equals(change.status())) {
+            markDirty(change.orderId());
+        }
+    }
+
+    @EventListener
+    public void onPaymentChanged(PaymentChangedEvent change) {
+        Long before = change.before() != null ? change.before().orderId() : null;
+        Long after = change.after() != null ? change.after().orderId() : null;
+        markDirty(after);
+        if (before != null && !before.equals(after)) {
+            markDirty(before);
+        }
+    }
+
+    @EventListener
+    public void onSalesChanged(SalesChangedEvent change) {
+        markDirty(change.orderId());
+    }
+
+    /**
+     * Enfileira para recálculo todas as horas com pedidos (ou já consolidadas) entre from e to.
+     * O trabalho em si é feito pelo refresh, em lotes. Retorna quantas horas foram marcadas.
+     */
+    public int backfill(LocalDateTime from, LocalDateTime to) {
+        if (from != null && to != null && !from.isBefore(to)) {
+            throw new IllegalArgumentException("O início do período deve ser anterior ao fim.");
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", from != null ? Timestamp.valueOf(ReportPeriod.HOUR.truncate(from)) : null)
+                .addValue("to", to != null ? Timestamp.valueOf(to) : null);
+        String range = (from != null ? " AND %1$s >= :from" : "") + (to != null ? " AND %1$s < :to" : "");
+        // Hours that already have rollups are included so that deleted orders disappear from them
+        int marked = jdbcTemplate.update("INSERT INTO sales_rollup_dirty (restaurant_id, bucket_start)"
+                + " SELECT restaurant_id, date_trunc('hour', created_at) FROM orders WHERE true"
+                + range.formatted("created_at")
+                + " UNION SELECT restaurant_id, bucket_start FROM sales_rollup WHERE period = 'HOUR'"
+                + range.formatted("bucket_start"), params);
+        logger.info("Backfill de vendas: {} horas enfileiradas", marked);
+        return marked;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup) {
+            return;
+        }
+        try {
+            Boolean empty = jdbcTemplate.queryForObject("SELECT NOT EXISTS (SELECT 1 FROM sales_rollup)"
+                    + " AND NOT EXISTS (SELECT 1 FROM sales_rollup_dirty)", new MapSqlParameterSource(), Boolean.class);
+            if (Boolean.TRUE.equals(empty)) {
+                backfill(null, null);
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível iniciar o backfill de vendas: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Recalcula as horas marcadas, um lote por transação, até a fila esvaziar. As marcas são
+     * removidas na mesma transação do recálculo; se ela falhar, voltam para o próximo ciclo.
+     */
+    @Scheduled(fixedDelayString = "${sales-rollup.refresh-interval-ms:5000}")
+    public void refresh() {
+        int claimed;
+        do {
+            Integer count = transactionTemplate.execute(status -> refreshBatch());
+            claimed = count != null ? count : 0;
+        } while (claimed == batchSize);
+    }
+
+    private int refreshBatch() {
+        // SKIP LOCKED lets more than one instance drain the queue
+        List<Bucket> marks = jdbcTemplate.query("DELETE FROM sales_rollup_dirty WHERE id IN ("
+                        + " SELECT id FROM sales_rollup_dirty ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED)"
+                        + " RETURNING restaurant_id, bucket_start",
+                new MapSqlParameterSource("limit", batchSize),
+                (rs, rowNum) -> new Bucket(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()));
+
+        Set<Bucket> hours = new LinkedHashSet<>(marks);
+        Set<Bucket> days = new LinkedHashSet<>();
+        for (Bucket hour : hours) {
+            recompute(hour, ReportPeriod.HOUR, HOUR_SALES, HOUR_PRODUCT_SALES);
+            days.add(new Bucket(hour.restaurantId(), ReportPeriod.DAY.truncate(hour.start())));
+        }
+        for (Bucket day : days) {
+            recompute(day, ReportPeriod.DAY, DAY_SALES, DAY_PRODUCT_SALES);
+        }
+        if (!hours.isEmpty()) {
+            logger.debug("Vendas recalculadas: {} horas, {} dias", hours.size(), days.size());
+        }
+        return marks.size();
+    }
+
+    private void recompute(Bucket bucket, ReportPeriod period, String salesSql, String productSalesSql) {
+        LocalDateTime end = period == ReportPeriod.HOUR ? bucket.start().plusHours(1) : bucket.start().plusDays(1);
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("period", period.name())
+                .addValue("restaurantId", bucket.restaurantId())
+                .addValue("start", Timestamp.valueOf(bucket.start()))
+                .addValue("end", Timestamp.valueOf(end));
+        String where = " WHERE period = :period AND restaurant_id = :restaurantId AND bucket_start = :start";
+        jdbcTemplate.update("DELETE FROM sales_rollup" + where, params);
+        jdbcTemplate.update("DELETE FROM product_sales_rollup" + where, params);
+        jdbcTemplate.update(salesSql, params);
+        jdbcTemplate.update(productSalesSql, params);
+    }
+
+    private void markDirty(Long orderId) {
+        if (orderId == null) {
+            return;
+        }
+        // The order may still be pending in the persistence context; the mark reads it from the table
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            entityManager.flush();
+        }
+        jdbcTemplate.update("INSERT INTO sales_rollup_dirty (restaurant_id, bucket_start)"
+                        + " SELECT restaurant_id, date_trunc('hour', created_at) FROM orders WHERE id = :orderId",
+                new MapSqlParameterSource("orderId", orderId));
+    }
+
+    private record Bucket(Long restaurantId, LocalDateTime start) {}
+}
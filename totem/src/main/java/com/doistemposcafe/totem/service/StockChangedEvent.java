@@ -0,0 +1,7 @@
+package com.doistemposcafe.totem.service;
+
+/**
+ * Publicado quando o estoque de um produto é definido manualmente (edição ou exclusão),
+ * para que o contador em memória seja descartado e recarregado do banco.
+ */
+public record StockChangedEvent(Long productId) {}
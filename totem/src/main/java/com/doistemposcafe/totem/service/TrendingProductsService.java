@@ -0,0 +1,159 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.dto.Output.TrendingProductOutputDTO;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Mais pedidos agora" por restaurante, sem GROUP BY em orders_product: cada item pedido alimenta,
+ * depois do commit, dois HeavyHitters (count-min sketch + heap dos mais frequentes) com meias-vidas
+ * diferentes — RECENT para o que está saindo agora e DAY para os campeões do dia. Na subida os
+ * sketches são aquecidos com os itens das últimas horas; a lista servida é recalculada no máximo a
+ * cada cache-ms.
+ */
+@Service
+public class TrendingProductsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrendingProductsService.class);
+
+    public enum Window { RECENT, DAY }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final int trackedProducts;
+    private final int sketchWidth;
+    private final int sketchDepth;
+    private final long recentHalfLifeMillis;
+    private final long dayHalfLifeMillis;
+    private final double minScore;
+    private final Duration cacheTtl;
+    private final int warmUpHours;
+
+    private final Map<Long, RestaurantTrends> byRestaurant = new ConcurrentHashMap<>();
+    private final Map<CacheKey, CachedTop> cache = new ConcurrentHashMap<>();
+
+    public TrendingProductsService(NamedParameterJdbcTemplate jdbcTemplate,
+                                   @Value("${trending.tracked-products:32}") int trackedProducts,
+                                   @Value("${trending.sketch-width:1024}") int sketchWidth,
+                                   @Value("${trending.sketch-depth:4}") int sketchDepth,
+                                   @Value("${trending.recent-half-life-minutes:20}") long recentHalfLifeMinutes,
+                                   @Value("${trending.day-half-life-minutes:360}") long dayHalfLifeMinutes,
+                                   @Value("${trending.min-score:0.5}") double minScore,
+                                   @Value("${trending.cache-ms:5000}") long cacheMs,
+                                   @Value("${trending.warm-up-hours:24}") int warmUpHours) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.trackedProducts = trackedProducts;
+        this.sketchWidth = sketchWidth;
+        this.sketchDepth = sketchDepth;
+        this.recentHalfLifeMillis = Duration.ofMinutes(recentHalfLifeMinutes).toMillis();
+        this.dayHalfLifeMillis = Duration.ofMinutes(dayHalfLifeMinutes).toMillis();
+        this.minScore = minScore;
+        this.cacheTtl = Duration.ofMillis(cacheMs);
+        this.warmUpHours = warmUpHours;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductsOrdered(ProductsOrderedEvent event) {
+        if (event.restaurantId() == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        RestaurantTrends trends = trends(event.restaurantId());
+        event.quantityByProduct().forEach((productId, quantity) -> trends.add(productId, quantity, now));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        try {
+            MapSqlParameterSource params = new MapSqlParameterSource("since",
+                    new Timestamp(System.currentTimeMillis() - Duration.ofHours(warmUpHours).toMillis()));
+            // Grouped per minute: a day of items becomes a few thousand rows at most
+            jdbcTemplate.query("SELECT o.restaurant_id, i.product_id, date_trunc('minute', i.created_at), sum(i.quantity)"
+                            + " FROM orders_product i JOIN orders o ON o.id = i.order_id"
+                            + " WHERE i.created_at >= :since AND i.status IS DISTINCT FROM 'CANCELLED'"
+                            + " GROUP BY 1, 2, 3 ORDER BY 3", params,
+                    rs -> {
+                        trends(rs.getLong(1)).add(rs.getLong(2), rs.getLong(4), rs.getTimestamp(3).getTime());
+                    });
+        } catch (RuntimeException e) {
+            logger.warn("Não foi possível aquecer os produtos em alta: {}", e.getMessage());
+        }
+    }
+
+    public List<TrendingProductOutputDTO> getTrending(Long restaurantId, String window, int limit) {
+        if (limit < 1 || limit > trackedProducts) {
+            throw new IllegalArgumentException("O limite deve estar entre 1 e " + trackedProducts + ".");
+        }
+        Window parsed = parseWindow(window);
+        RestaurantTrends trends = byRestaurant.get(restaurantId);
+        // Public endpoint: unknown restaurants must not create cache entries
+        if (trends == null) {
+            return List.of();
+        }
+        CacheKey key = new CacheKey(restaurantId, parsed);
+        long now = System.currentTimeMillis();
+        CachedTop cached = cache.get(key);
+        if (cached == null || now - cached.computedAt() > cacheTtl.toMillis()) {
+            HeavyHitters hitters = parsed == Window.RECENT ? trends.recent : trends.day;
+            cached = new CachedTop(hitters.top(trackedProducts, minScore, now).stream()
+                    .map(hit -> new TrendingProductOutputDTO(hit.key(), hit.count()))
+                    .toList(), now);
+            cache.put(key, cached);
+        }
+        List<TrendingProductOutputDTO> top = cached.products();
+        return top.size() > limit ? top.subList(0, limit) : top;
+    }
+
+    public Duration getCacheTtl() {
+        return cacheTtl;
+    }
+
+    private RestaurantTrends trends(Long restaurantId) {
+        return byRestaurant.computeIfAbsent(restaurantId, id -> new RestaurantTrends());
+    }
+
+    private static Window parseWindow(String window) {
+        if (window == null) {
+            return Window.RECENT;
+        }
+        try {
+            return Window.valueOf(window.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Janela inválida: " + window + ". Use RECENT ou DAY.");
+        }
+    }
+
+    private final class RestaurantTrends {
+        private final HeavyHitters recent;
+        private final HeavyHitters day;
+
+        RestaurantTrends() {
+            long now = System.currentTimeMillis();
+            this.recent = new HeavyHitters(trackedProducts, sketchWidth, sketchDepth, recentHalfLifeMillis, now);
+            this.day = new HeavyHitters(trackedProducts, sketchWidth, sketchDepth, dayHalfLifeMillis, now);
+        }
+
+        void add(long productId, double quantity, long timeMillis) {
+            recent.add(productId, quantity, timeMillis);
+            day.add(productId, quantity, timeMillis);
+        }
+    }
+
+    private record CacheKey(Long restaurantId, Window window) {}
+
+    private record CachedTop(List<TrendingProductOutputDTO> products, long computedAt) {}
+}
@@ -8,7 +8,9 @@ import com.doistemposcafe.totem.model.Role;
 import com.doistemposcafe.totem.model.User;
 import com.doistemposcafe.totem.repository.PasswordResetTokenRepository;
 import com.doistemposcafe.totem.repository.UserRepository;
+import com.doistemposcafe.totem.security.PrincipalChangedEvent;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -26,14 +28,17 @@ public class UserService {
     private final PasswordEncoder passwordEncoder;
     private final PasswordResetTokenRepository tokenRepository;
     private final EmailService emailService;
+    private final ApplicationEventPublisher eventPublisher;
     private final long EXPIRATION_TIME_MINUTES = 30;
     public UserService(UserRepository userRepository,
-                       UserMapper userMapper, PasswordEncoder passwordEncoder, PasswordResetTokenRepository tokenRepository, EmailService emailService) {
+                       UserMapper userMapper, PasswordEncoder passwordEncoder, PasswordResetTokenRepository tokenRepository, EmailService emailService,
+                       ApplicationEventPublisher eventPublisher) {
         this.userRepository = userRepository;
         this.userMapper = userMapper;
         this.passwordEncoder = passwordEncoder;
         this.tokenRepository = tokenRepository;
         this.emailService = emailService;
+        this.eventPublisher = eventPublisher;
     }
 
     public List<UserOutputDTO> getAllUsers() {
@@ -55,6 +60,8 @@ public class UserService {
     public UserOutputDTO updateUser(UserInputDTO inputDTO, Long id) {
         return userRepository.findById(id)
                 .map(existingUser -> {
+                    // O principal em cache é indexado pelo e-mail anterior
+                    eventPublisher.publishEvent(new PrincipalChangedEvent(existingUser.getEmail()));
 
                     if (inputDTO.name() != null && !inputDTO.name().trim().isEmpty()) {
                         existingUser.setName(inputDTO.name());
@@ -87,11 +94,13 @@ public class UserService {
 
     @Transactional
     public boolean deleteUser(Long id) {
-        if (userRepository.existsById(id)) {
-            userRepository.deleteById(id);
-            return true;
-        }
-        return false;
+        return userRepository.findById(id)
+                .map(user -> {
+                    userRepository.delete(user);
+                    eventPublisher.publishEvent(new PrincipalChangedEvent(user.getEmail()));
+                    return true;
+                })
+                .orElse(false);
     }
     @Transactional
     public String createPasswordResetTokenForUser(String email) {
@@ -121,7 +130,7 @@ public class UserService {
                 + "Atenciosamente,\n"
                 + "Equipe Dois Tempos Café";
 
-        emailService.sendSimpleMail(recipientAddress, subject, message);
+        emailService.enqueue(recipientAddress, subject, message);
 
         return token;
     }
@@ -141,6 +150,7 @@ public class UserService {
 
         user.setPassword(passwordEncoder.encode(newPassword));
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(user.getEmail()));
     }
 
 
@@ -169,6 +179,7 @@ public class UserService {
         user.setPassword(passwordEncoder.encode(newPassword));
 
         userRepository.save(user);
+        eventPublisher.publishEvent(new PrincipalChangedEvent(user.getEmail()));
 
         tokenRepository.delete(resetToken);
     }
@@ -0,0 +1,62 @@
+package com.doistemposcafe.totem.tracing;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Comandos SQL executados pela requisição HTTP corrente. Fica em um ThreadLocal aberto pelo
+ * SqlTracingFilter; comandos executados fora de uma requisição (jobs agendados, executores) não são contados.
+ */
+public final class SqlTrace {
+
+    private static final ThreadLocal<SqlTrace> CURRENT = new ThreadLocal<>();
+
+    private final int maxRecorded;
+    private final List<String> recorded = new ArrayList<>();
+    private int statements;
+    private long dbTimeNanos;
+
+    private SqlTrace(int maxRecorded) {
+        this.maxRecorded = maxRecorded;
+    }
+
+    static SqlTrace begin(int maxRecorded) {
+        SqlTrace trace = new SqlTrace(maxRecorded);
+        CURRENT.set(trace);
+        return trace;
+    }
+
+    static void end() {
+        CURRENT.remove();
+    }
+
+    static SqlTrace current() {
+        return CURRENT.get();
+    }
+
+    void record(String sql, long elapsedNanos, int batchSize) {
+        statements++;
+        dbTimeNanos += elapsedNanos;
+        if (recorded.size() < maxRecorded) {
+            recorded.add("[" + millis(elapsedNanos) + " ms" + (batchSize > 1 ? ", lote de " + batchSize : "") + "] " + sql);
+        }
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    public long dbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    List<String> recorded() {
+        return recorded;
+    }
+
+    // Most statements take well under a millisecond, so whole milliseconds would read as 0
+    static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
@@ -0,0 +1,57 @@
+package com.doistemposcafe.totem.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Recebe cada execução JDBC do DataSource instrumentado: soma na SqlTrace da requisição
+ * e registra em log qualquer comando acima de sql.trace.slow-query-ms, dentro ou fora de requisições.
+ */
+class SqlTraceListener implements QueryExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlTraceListener.class);
+
+    private static final String START_NANOS = "totem.sql.start-nanos";
+
+    private final long slowQueryNanos;
+
+    SqlTraceListener(long slowQueryMs) {
+        this.slowQueryNanos = TimeUnit.MILLISECONDS.toNanos(slowQueryMs);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // getElapsedTime() is in whole milliseconds; sub-millisecond statements would add nothing
+        execInfo.addCustomValue(START_NANOS, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START_NANOS, Long.class);
+        long elapsedNanos = start != null
+                ? System.nanoTime() - start
+                : TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        SqlTrace trace = SqlTrace.current();
+        boolean slow = elapsedNanos >= slowQueryNanos;
+        if (trace == null && !slow) {
+            return;
+        }
+
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).collect(Collectors.joining("; "));
+        int batchSize = execInfo.isBatch() ? execInfo.getBatchSize() : 1;
+        if (trace != null) {
+            // A JDBC batch is one round trip
+            trace.record(sql, elapsedNanos, batchSize);
+        }
+        if (slow) {
+            logger.warn("Comando SQL lento ({} ms): {}", SqlTrace.millis(elapsedNanos), sql);
+        }
+    }
+}
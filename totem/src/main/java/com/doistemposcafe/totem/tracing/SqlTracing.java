@@ -0,0 +1,26 @@
+package com.doistemposcafe.totem.tracing;
+
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+
+import javax.sql.DataSource;
+
+public final class SqlTracing {
+
+    private SqlTracing() {
+    }
+
+    /**
+     * Envolve o DataSource em um proxy JDBC que alimenta a SqlTrace da requisição corrente.
+     */
+    public static DataSource trace(DataSource dataSource, long slowQueryMs) {
+        return ProxyDataSourceBuilder.create(dataSource)
+                .name("totem")
+                .listener(new SqlTraceListener(slowQueryMs))
+                .build();
+    }
+
+    public static boolean isTraced(DataSource dataSource) {
+        return dataSource instanceof ProxyDataSource;
+    }
+}
@@ -0,0 +1,113 @@
+package com.doistemposcafe.totem.tracing;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Abre uma SqlTrace por requisição. Ao final publica o número de comandos e o tempo de banco
+ * por rota (totem.http.sql.statements / totem.http.sql.time) e registra em log, com a lista
+ * de comandos, as requisições acima de sql.trace.max-statements ou sql.trace.max-db-time-ms.
+ * Com sql.trace.headers=true (apenas fora de produção) devolve os mesmos números em X-SQL-Count e
+ * X-SQL-Time-Ms (milissegundos com três casas decimais).
+ */
+public class SqlTracingFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-SQL-Count";
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlTracingFilter.class);
+
+    private final MeterRegistry meterRegistry;
+    private final int maxStatements;
+    private final long maxDbTimeMs;
+    private final long maxDbTimeNanos;
+    private final int maxLoggedStatements;
+    private final boolean headers;
+
+    public SqlTracingFilter(MeterRegistry meterRegistry, int maxStatements, long maxDbTimeMs,
+                            int maxLoggedStatements, boolean headers) {
+        this.meterRegistry = meterRegistry;
+        this.maxStatements = maxStatements;
+        this.maxDbTimeMs = maxDbTimeMs;
+        this.maxDbTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxDbTimeMs);
+        this.maxLoggedStatements = maxLoggedStatements;
+        this.headers = headers;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        SqlTrace trace = SqlTrace.begin(maxLoggedStatements);
+        HttpServletResponse traced = headers ? new TraceHeadersResponse(response, trace) : response;
+        try {
+            filterChain.doFilter(request, traced);
+            if (headers && !response.isCommitted()) {
+                // Responses without a body (204, 304) are only committed after the chain
+                writeHeaders(response, trace);
+            }
+        } finally {
+            SqlTrace.end();
+            report(request, trace);
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlTrace trace) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+        DistributionSummary.builder("totem.http.sql.statements")
+                .description("Comandos SQL por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(trace.statements());
+        Timer.builder("totem.http.sql.time")
+                .description("Tempo de banco por requisição")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(trace.dbTimeNanos(), TimeUnit.NANOSECONDS);
+
+        if (trace.statements() > maxStatements || trace.dbTimeNanos() > maxDbTimeNanos) {
+            String statements = String.join("\n  ", trace.recorded());
+            logger.warn("{} {}: {} comandos SQL, {} ms no banco (limites: {} comandos, {} ms)\n  {}",
+                    request.getMethod(), request.getRequestURI(), trace.statements(), SqlTrace.millis(trace.dbTimeNanos()),
+                    maxStatements, maxDbTimeMs, statements);
+        }
+    }
+
+    private static void writeHeaders(HttpServletResponse response, SqlTrace trace) {
+        response.setHeader(COUNT_HEADER, Integer.toString(trace.statements()));
+        response.setHeader(TIME_HEADER, SqlTrace.millis(trace.dbTimeNanos()));
+    }
+
+    /**
+     * Headers have to be written before the body commits the response; the SQL run up to that point is reported.
+     */
+    private static final class TraceHeadersResponse extends OnCommittedResponseWrapper {
+        private final SqlTrace trace;
+
+        TraceHeadersResponse(HttpServletResponse response, SqlTrace trace) {
+            super(response);
+            this.trace = trace;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders(this, trace);
+        }
+    }
+}
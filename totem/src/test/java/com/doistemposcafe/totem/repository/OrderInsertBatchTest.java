@@ -0,0 +1,141 @@
+package com.doistemposcafe.totem.repository;
+
+import com.doistemposcafe.totem.model.Manager;
+import com.doistemposcafe.totem.model.MenuCategory;
+import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.model.Restaurant;
+import com.doistemposcafe.totem.model.Role;
+import com.doistemposcafe.totem.model.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Grava um pedido de 20 itens pelos repositórios, em uma transação real, e conta os comandos SQL.
+ * Com IDs de sequência pooled (allocationSize = 50) e hibernate.jdbc.batch_size, os itens saem em
+ * um único lote: se alguma entidade voltar para IDENTITY, cada item vira um INSERT e o teste falha.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class OrderInsertBatchTest {
+
+    private static final int LINES_PER_ORDER = 20;
+
+    @Autowired private OrderRepository orderRepository;
+    @Autowired private ProductRepository productRepository;
+    @Autowired private MenuCategoryRepository menuCategoryRepository;
+    @Autowired private RestaurantRepository restaurantRepository;
+    @Autowired private ManagerRepository managerRepository;
+    @Autowired private UserRepository userRepository;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private Statistics statistics;
+    private Restaurant restaurant;
+    private Product product;
+    private User user;
+
+    @BeforeEach
+    void seed() {
+        Manager manager = new Manager();
+        manager.setName("Gerente");
+        manager.setEmail("gerente@example.com");
+        manager.setRole(Role.MANAGER);
+        managerRepository.save(manager);
+
+        restaurant = new Restaurant();
+        restaurant.setName("Restaurante");
+        restaurant.setSlug("restaurante");
+        restaurant.setDescription("Descrição");
+        restaurant.setManager(manager);
+        restaurantRepository.save(restaurant);
+
+        MenuCategory category = new MenuCategory();
+        category.setName("Categoria");
+        category.setRestaurant(restaurant);
+        menuCategoryRepository.save(category);
+
+        product = new Product();
+        product.setName("Produto");
+        product.setPrice(10);
+        product.setAmount(100);
+        product.setRestaurant(restaurant);
+        product.setMenuCategory(category);
+        productRepository.save(product);
+
+        user = new User();
+        user.setName("Cliente");
+        user.setEmail("cliente@example.com");
+        user.setPassword("x");
+        user.setRole(Role.CLIENT);
+        userRepository.save(user);
+
+        // Hibernate's first nextval of each sequence only sets up the pool; keep that out of the count
+        orderRepository.save(order());
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        orderRepository.deleteAll();
+        productRepository.deleteAll();
+        menuCategoryRepository.deleteAll();
+        restaurantRepository.deleteAll();
+        managerRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void orderLinesAreInsertedInOneBatch() {
+        statistics.clear();
+
+        Order saved = new TransactionTemplate(transactionManager).execute(status -> orderRepository.save(order()));
+
+        assertThat(saved.getItems()).hasSize(LINES_PER_ORDER).allSatisfy(item -> assertThat(item.getId()).isPositive());
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(1 + LINES_PER_ORDER);
+        // One INSERT for the order, one batched INSERT for all lines and at most one id block per sequence
+        assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(4);
+    }
+
+    private Order order() {
+        Order order = new Order();
+        order.setName("Pedido");
+        order.setStatus(OrderStatus.PENDING);
+        order.setConsumption_method("DINE_IN");
+        order.setUser(user);
+        order.setRestaurant(restaurant);
+        for (int line = 0; line < LINES_PER_ORDER; line++) {
+            OrderItem item = new OrderItem();
+            item.setName(product.getName());
+            item.setQuantity(1);
+            item.setPrice(product.getPrice());
+            item.setProduct(product);
+            item.setOrder(order);
+            order.getItems().add(item);
+        }
+        return order;
+    }
+}
@@ -0,0 +1,232 @@
+package com.doistemposcafe.totem.repository;
+
+import com.doistemposcafe.totem.dto.Input.OrderFilterInputDTO;
+import com.doistemposcafe.totem.dto.mapper.ManagerMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.MenuCategoryMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.OrderItemMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.OrderMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.PaymentMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.ProductMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.RestaurantMapperImpl;
+import com.doistemposcafe.totem.dto.mapper.UserMapperImpl;
+import com.doistemposcafe.totem.model.Manager;
+import com.doistemposcafe.totem.model.MenuCategory;
+import com.doistemposcafe.totem.model.Order;
+import com.doistemposcafe.totem.model.OrderItem;
+import com.doistemposcafe.totem.model.OrderStatus;
+import com.doistemposcafe.totem.model.Payment;
+import com.doistemposcafe.totem.model.PaymentStatus;
+import com.doistemposcafe.totem.model.Product;
+import com.doistemposcafe.totem.model.Restaurant;
+import com.doistemposcafe.totem.model.Role;
+import com.doistemposcafe.totem.model.User;
+import com.doistemposcafe.totem.service.EmailService;
+import com.doistemposcafe.totem.service.InventoryService;
+import com.doistemposcafe.totem.service.ManagerService;
+import com.doistemposcafe.totem.service.MenuCategoryService;
+import com.doistemposcafe.totem.service.OrderItemService;
+import com.doistemposcafe.totem.service.OrderService;
+import com.doistemposcafe.totem.service.PaymentService;
+import com.doistemposcafe.totem.service.ProductService;
+import com.doistemposcafe.totem.service.RestaurantService;
+import com.doistemposcafe.totem.service.UserService;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Conta os comandos SQL de cada endpoint de listagem/detalhe. Cada rota deve custar um número
+ * fixo de consultas, independente de quantas linhas retorna: se um mapeamento voltar a
+ * inicializar associações LAZY linha a linha, o número aqui cresce e o teste falha.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts="
+})
+@Import({OrderService.class, OrderItemService.class, PaymentService.class, ProductService.class,
+        MenuCategoryService.class, RestaurantService.class, ManagerService.class, UserService.class,
+        InventoryService.class,
+        OrderMapperImpl.class, OrderItemMapperImpl.class, PaymentMapperImpl.class, ProductMapperImpl.class,
+        MenuCategoryMapperImpl.class, RestaurantMapperImpl.class, ManagerMapperImpl.class, UserMapperImpl.class})
+class QueryCountTest {
+
+    private static final int ROWS = 5;
+
+    @MockitoBean
+    private PasswordEncoder passwordEncoder;
+    @MockitoBean
+    private EmailService emailService;
+
+    @Autowired private EntityManager entityManager;
+    @Autowired private EntityManagerFactory entityManagerFactory;
+    @Autowired private OrderService orderService;
+    @Autowired private OrderItemService orderItemService;
+    @Autowired private PaymentService paymentService;
+    @Autowired private ProductService productService;
+    @Autowired private MenuCategoryService menuCategoryService;
+    @Autowired private RestaurantService restaurantService;
+    @Autowired private ManagerService managerService;
+    @Autowired private UserService userService;
+
+    private Statistics statistics;
+    private Order firstOrder;
+    private OrderItem firstItem;
+    private Payment firstPayment;
+    private Product firstProduct;
+    private MenuCategory firstCategory;
+    private Restaurant firstRestaurant;
+    private User firstUser;
+
+    @BeforeEach
+    void seed() {
+        for (int i = 0; i < ROWS; i++) {
+            Manager manager = new Manager();
+            manager.setName("Gerente " + i);
+            manager.setEmail("gerente" + i + "@example.com");
+            manager.setRole(Role.MANAGER);
+            entityManager.persist(manager);
+
+            Restaurant restaurant = new Restaurant();
+            restaurant.setName("Restaurante " + i);
+            restaurant.setSlug("restaurante-" + i);
+            restaurant.setDescription("Descrição " + i);
+            restaurant.setManager(manager);
+            entityManager.persist(restaurant);
+
+            MenuCategory category = new MenuCategory();
+            category.setName("Categoria " + i);
+            category.setRestaurant(restaurant);
+            entityManager.persist(category);
+
+            Product product = new Product();
+            product.setName("Produto " + i);
+            product.setPrice(10 + i);
+            product.setAmount(100);
+            product.setRestaurant(restaurant);
+            product.setMenuCategory(category);
+            entityManager.persist(product);
+
+            User user = new User();
+            user.setName("Cliente " + i);
+            user.setEmail("cliente" + i + "@example.com");
+            user.setPassword("x");
+            user.setRole(Role.CLIENT);
+            entityManager.persist(user);
+
+            Order order = new Order();
+            order.setName("Pedido " + i);
+            order.setStatus(OrderStatus.PENDING);
+            order.setConsumption_method("DINE_IN");
+            order.setUser(user);
+            order.setRestaurant(restaurant);
+            entityManager.persist(order);
+
+            OrderItem item = new OrderItem();
+            item.setName(product.getName());
+            item.setQuantity(1);
+            item.setPrice(product.getPrice());
+            item.setProduct(product);
+            item.setOrder(order);
+            entityManager.persist(item);
+
+            Payment payment = new Payment();
+            payment.setMethod("PIX");
+            payment.setStatus(PaymentStatus.COMPLETED);
+            payment.setTransactionId("tx-" + i);
+            payment.setOrder(order);
+            entityManager.persist(payment);
+            order.setPayment(payment);
+
+            if (i == 0) {
+                firstOrder = order;
+                firstItem = item;
+                firstPayment = payment;
+                firstProduct = product;
+                firstCategory = category;
+                firstRestaurant = restaurant;
+                firstUser = user;
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void orders() {
+        assertStatements(1, () -> orderService.getAllOrders(), ROWS);
+        assertStatements(1, () -> orderService.listOrders(new OrderFilterInputDTO(null, null, null, null, null), null, 50).items(), ROWS);
+        assertStatements(1, () -> orderService.getOrderById(firstOrder.getId()));
+    }
+
+    @Test
+    void orderItems() {
+        assertStatements(1, () -> orderItemService.getAllItems(), ROWS);
+        assertStatements(1, () -> orderItemService.getItemById(firstItem.getId()));
+    }
+
+    @Test
+    void payments() {
+        assertStatements(1, () -> paymentService.getAllPayments(), ROWS);
+        assertStatements(1, () -> paymentService.getPaymentById(firstPayment.getId()));
+    }
+
+    @Test
+    void products() {
+        assertStatements(1, () -> productService.getAllProducts(), ROWS);
+        assertStatements(1, () -> productService.getProductById(firstProduct.getId()));
+    }
+
+    @Test
+    void menuCategories() {
+        assertStatements(1, () -> menuCategoryService.getAllCategories(), ROWS);
+        assertStatements(1, () -> menuCategoryService.getCategoryById(firstCategory.getId()));
+    }
+
+    @Test
+    void restaurants() {
+        assertStatements(1, () -> restaurantService.getRestaurants(), ROWS);
+        assertStatements(1, () -> restaurantService.getRestaurantById(firstRestaurant.getId()));
+    }
+
+    @Test
+    void managersAndUsers() {
+        assertStatements(1, () -> managerService.getAllManagers(), ROWS);
+        assertStatements(1, () -> userService.getAllUsers(), ROWS);
+        assertStatements(1, () -> userService.getUserById(firstUser.getId()));
+    }
+
+    private void assertStatements(long expected, Supplier<Object> endpoint) {
+        entityManager.clear();
+        statistics.clear();
+        assertThat(endpoint.get()).isNotNull();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+
+    private void assertStatements(long expected, Supplier<List<?>> endpoint, int rows) {
+        entityManager.clear();
+        statistics.clear();
+        assertThat(endpoint.get()).hasSize(rows);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(expected);
+    }
+}
@@ -0,0 +1,78 @@
+package com.doistemposcafe.totem.security;
+
+import com.doistemposcafe.totem.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LoginThrottleTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    // 3 attempts per IP, 2 guesses per account from one IP and 3 per account in total, refilling at one per minute
+    private final LoginThrottle throttle = new LoginThrottle(meterRegistry, true, 3, 1, 2, 1, 3, 1);
+
+    @Test
+    void rejectsAnIpOnceItsBucketIsEmpty() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            throttle.check("10.0.0.1", "cliente" + attempt + "@example.com");
+        }
+
+        assertThatThrownBy(() -> throttle.check("10.0.0.1", "outro@example.com"))
+                .isInstanceOf(LoginThrottledException.class)
+                .satisfies(e -> assertThat(((LoginThrottledException) e).getRetryAfterSeconds()).isBetween(1L, 60L));
+        assertThatCode(() -> throttle.check("10.0.0.2", "outro@example.com")).doesNotThrowAnyException();
+        assertThat(meterRegistry.counter("totem.security.login.throttled", "scope", "ip").count()).isEqualTo(1);
+    }
+
+    @Test
+    void guessesStillInFlightCountAgainstTheAccount() {
+        // Neither attempt has finished BCrypt yet
+        throttle.check("10.0.0.1", "ana@example.com");
+        throttle.check("10.0.0.1", " Ana@Example.com ");
+
+        assertThatThrownBy(() -> throttle.check("10.0.0.1", "ana@example.com"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.counter("totem.security.login.throttled", "scope", "account").count()).isEqualTo(1);
+    }
+
+    @Test
+    void attemptsThatWereNotWrongPasswordsAreGivenBack() {
+        for (int attempt = 0; attempt < 3; attempt++) {
+            throttle.check("10.0.0." + attempt, "bruno@example.com");
+            throttle.release("10.0.0." + attempt, "bruno@example.com");
+        }
+
+        assertThatCode(() -> throttle.check("10.0.0.9", "bruno@example.com")).doesNotThrowAnyException();
+    }
+
+    @Test
+    void guessesFromOneIpDoNotHoldTheOwnerOnAnother() {
+        throttle.check("10.0.0.1", "carla@example.com");
+        throttle.check("10.0.0.1", "carla@example.com");
+        assertThatThrownBy(() -> throttle.check("10.0.0.1", "carla@example.com"))
+                .isInstanceOf(LoginThrottledException.class);
+
+        throttle.check("10.0.0.9", "carla@example.com");
+        throttle.release("10.0.0.9", "carla@example.com");
+
+        // Spread over IPs, guesses stop at the account's total
+        throttle.check("10.0.0.2", "carla@example.com");
+        assertThatThrownBy(() -> throttle.check("10.0.0.3", "carla@example.com"))
+                .isInstanceOf(LoginThrottledException.class);
+        assertThat(meterRegistry.counter("totem.security.login.throttled", "scope", "account-total").count()).isEqualTo(1);
+    }
+
+    @Test
+    void evictsOnlyBucketsThatAreFull() {
+        throttle.check("10.0.0.1", "bruno@example.com");
+        throttle.check("10.0.0.1", "bruno@example.com");
+
+        throttle.evictFull();
+
+        assertThatThrownBy(() -> throttle.check("10.0.0.1", "bruno@example.com"))
+                .isInstanceOf(LoginThrottledException.class);
+    }
+}
@@ -0,0 +1,77 @@
+package com.doistemposcafe.totem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class CoOccurrenceMatrixTest {
+
+    @Test
+    void ranksProductsBoughtTogetherByConfidence() {
+        CoOccurrenceMatrix matrix = new CoOccurrenceMatrix();
+        matrix.addOrder(new long[] {1, 2, 3});
+        matrix.addOrder(new long[] {1, 2});
+        matrix.addOrder(new long[] {1, 2, 4});
+        matrix.addOrder(new long[] {1, 3});
+        matrix.addOrder(new long[] {4});
+
+        List<CoOccurrenceMatrix.Suggestion> suggestions = matrix.suggest(1, 5, 2);
+
+        assertThat(suggestions).extracting(CoOccurrenceMatrix.Suggestion::productId).containsExactly(2L, 3L);
+        assertThat(suggestions.get(0).together()).isEqualTo(3);
+        assertThat(suggestions.get(0).confidence()).isCloseTo(0.75, within(1e-9));
+        // 3 of product 1's 4 orders versus 3 of all 5 orders
+        assertThat(suggestions.get(0).lift()).isCloseTo(1.25, within(1e-9));
+    }
+
+    @Test
+    void itemsAddedOneByOneCountLikeAWholeOrder() {
+        CoOccurrenceMatrix incremental = new CoOccurrenceMatrix();
+        incremental.addProducts(new long[] {1}, new long[0]);
+        incremental.addProducts(new long[] {2}, new long[] {1});
+        incremental.addProducts(new long[] {3}, new long[] {1, 2});
+
+        CoOccurrenceMatrix whole = new CoOccurrenceMatrix();
+        whole.addOrder(new long[] {1, 2, 3});
+
+        assertThat(incremental.totalOrders()).isEqualTo(1);
+        for (long product = 1; product <= 3; product++) {
+            assertThat(incremental.suggest(product, 5, 1)).isEqualTo(whole.suggest(product, 5, 1));
+        }
+    }
+
+    @Test
+    void mergedPartialMatricesMatchASingleBuild() {
+        CoOccurrenceMatrix single = new CoOccurrenceMatrix();
+        CoOccurrenceMatrix left = new CoOccurrenceMatrix();
+        CoOccurrenceMatrix right = new CoOccurrenceMatrix();
+        for (int order = 0; order < 500; order++) {
+            long[] basket = {1 + order % 40, 41 + order % 7, 100 + order % 3};
+            single.addOrder(basket);
+            (order % 2 == 0 ? left : right).addOrder(basket);
+        }
+        left.addAll(right);
+
+        assertThat(left.totalOrders()).isEqualTo(500);
+        for (long product : new long[] {1, 41, 100}) {
+            assertThat(left.suggest(product, 20, 1)).isEqualTo(single.suggest(product, 20, 1));
+        }
+    }
+
+    @Test
+    void primitiveMapGrowsWithoutLosingCounts() {
+        LongIntHashMap map = new LongIntHashMap();
+        for (long key = 1; key <= 10_000; key++) {
+            map.addTo(key * 31, (int) key);
+        }
+        map.addTo(31, 5);
+
+        assertThat(map.size()).isEqualTo(10_000);
+        assertThat(map.get(31)).isEqualTo(6);
+        assertThat(map.get(10_000L * 31)).isEqualTo(10_000);
+        assertThat(map.get(32)).isZero();
+    }
+}
@@ -0,0 +1,65 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.model.EmailOutbox;
+import com.doistemposcafe.totem.repository.EmailOutboxRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Reserva com transações reais: depois do commit do claim as linhas têm de continuar SENDING,
+ * com o lease gravado, senão outro dispatcher pode pegá-las de novo e enviar em dobro.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EmailDispatcherClaimTest {
+
+    @Autowired private EmailOutboxRepository outboxRepository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void cleanUp() {
+        outboxRepository.deleteAll();
+    }
+
+    @Test
+    void claimedRowsStaySendingAfterCommit() {
+        outboxRepository.saveAll(List.of(
+                new EmailOutbox("ana@example.com", "Redefinição de senha", "Seu código é 123"),
+                new EmailOutbox("bruno@example.com", "Redefinição de senha", "Seu código é 456")));
+        EmailDispatcher dispatcher = new EmailDispatcher(outboxRepository, mock(JavaMailSender.class),
+                transactionManager, Runnable::run, 50, 2, 5, 1000, 60000);
+
+        List<EmailOutbox> claimed = new TransactionTemplate(transactionManager).execute(status -> dispatcher.claim());
+
+        assertThat(claimed).hasSize(2).allSatisfy(email -> assertThat(email.getAttempts()).isEqualTo(1));
+        assertThat(outboxRepository.findAll()).hasSize(2).allSatisfy(email -> {
+            assertThat(email.getStatus()).isEqualTo(EmailOutbox.SENDING);
+            assertThat(email.getAttempts()).isEqualTo(1);
+            assertThat(email.getNextAttemptAt()).isAfter(LocalDateTime.now().plusSeconds(30));
+        });
+        // Nothing is due until the lease runs out
+        List<EmailOutbox> again = new TransactionTemplate(transactionManager).execute(status -> dispatcher.claim());
+        assertThat(again).isEmpty();
+    }
+}
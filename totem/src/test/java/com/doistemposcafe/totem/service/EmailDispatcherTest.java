@@ -0,0 +1,75 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.model.EmailOutbox;
+import com.doistemposcafe.totem.repository.EmailOutboxRepository;
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.RegisterExtension;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class EmailDispatcherTest {
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
+    private final EmailOutboxRepository outboxRepository = mock(EmailOutboxRepository.class);
+
+    @Test
+    void sendsClaimedBatchThroughSmtpAndMarksItSent() throws Exception {
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(
+                outbox(1L, "ana@example.com"),
+                outbox(2L, "bruno@example.com")));
+
+        dispatcher(ServerSetupTest.SMTP.getPort()).dispatch();
+
+        MimeMessage[] received = greenMail.getReceivedMessages();
+        assertThat(received).hasSize(2);
+        assertThat(received[0].getSubject()).isEqualTo("Redefinição de senha");
+        verify(outboxRepository).markSending(eq(List.of(1L, 2L)), any());
+        // concurrency = 2: one SMTP session per half of the batch
+        verify(outboxRepository, times(2)).markSent(any(), any());
+        verify(outboxRepository, never()).markFailedAttempt(any(), anyString(), any(), any());
+    }
+
+    @Test
+    void reschedulesWhenSmtpIsUnavailable() {
+        when(outboxRepository.lockDue(any(), anyInt())).thenReturn(List.of(outbox(3L, "carla@example.com")));
+
+        // Nothing listens on this port
+        dispatcher(ServerSetupTest.SMTP.getPort() + 7).dispatch();
+
+        verify(outboxRepository).markFailedAttempt(eq(3L), eq(EmailOutbox.PENDING), any(), any());
+        verify(outboxRepository, never()).markSent(any(), any());
+    }
+
+    private EmailDispatcher dispatcher(int smtpPort) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(smtpPort);
+        mailSender.setDefaultEncoding("UTF-8");
+        return new EmailDispatcher(outboxRepository, mailSender, mock(PlatformTransactionManager.class),
+                Runnable::run, 50, 2, 5, 1000, 60000);
+    }
+
+    private EmailOutbox outbox(Long id, String recipient) {
+        EmailOutbox email = new EmailOutbox(recipient, "Redefinição de senha", "Seu código é 123");
+        email.setId(id);
+        return email;
+    }
+}
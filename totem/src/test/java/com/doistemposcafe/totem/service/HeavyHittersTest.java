@@ -0,0 +1,59 @@
+package com.doistemposcafe.totem.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class HeavyHittersTest {
+
+    private static final long HALF_LIFE = Duration.ofMinutes(20).toMillis();
+
+    @Test
+    void keepsTheMostFrequentKeysInOrder() {
+        HeavyHitters hitters = new HeavyHitters(3, 1024, 4, HALF_LIFE, 0);
+        for (long key = 1; key <= 50; key++) {
+            hitters.add(key, 1, 0);
+        }
+        hitters.add(7, 30, 0);
+        hitters.add(3, 20, 0);
+        hitters.add(42, 10, 0);
+
+        List<HeavyHitters.Hit> top = hitters.top(3, 0, 0);
+
+        assertThat(top).extracting(HeavyHitters.Hit::key).containsExactly(7L, 3L, 42L);
+        assertThat(top.get(0).count()).isCloseTo(31, within(1e-9));
+    }
+
+    @Test
+    void olderOccurrencesLoseHalfTheirWeightPerHalfLife() {
+        HeavyHitters hitters = new HeavyHitters(8, 1024, 4, HALF_LIFE, 0);
+        hitters.add(1, 8, 0);
+        hitters.add(2, 5, 2 * HALF_LIFE);
+
+        List<HeavyHitters.Hit> top = hitters.top(8, 0, 2 * HALF_LIFE);
+
+        assertThat(top).extracting(HeavyHitters.Hit::key).containsExactly(2L, 1L);
+        assertThat(top.get(1).count()).isCloseTo(2, within(1e-9));
+        assertThat(hitters.top(8, 3, 2 * HALF_LIFE)).extracting(HeavyHitters.Hit::key).containsExactly(2L);
+    }
+
+    @Test
+    void rescalingKeepsCountsAndRanking() {
+        HeavyHitters hitters = new HeavyHitters(8, 1024, 4, HALF_LIFE, 0);
+        hitters.add(1, 4, 0);
+        hitters.add(2, 1, 0);
+        // Far past the rescale threshold
+        long later = 100 * HALF_LIFE;
+        hitters.add(2, 1, later);
+        hitters.add(3, 1, later);
+
+        List<HeavyHitters.Hit> top = hitters.top(8, 0.5, later);
+
+        assertThat(top).extracting(HeavyHitters.Hit::key).containsExactly(2L, 3L);
+        assertThat(top.get(0).count()).isCloseTo(1, within(1e-9));
+    }
+}
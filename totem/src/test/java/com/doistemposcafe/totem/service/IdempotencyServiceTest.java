@@ -0,0 +1,97 @@
+package com.doistemposcafe.totem.service;
+
+import com.doistemposcafe.totem.model.IdempotencyRecord;
+import com.doistemposcafe.totem.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A chave é gravada na transação da ação: se a ação falha, nada fica registrado e o reenvio
+ * executa de novo; se dá certo, outra instância (sem o LRU) reaproveita a resposta do banco.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.datasource.hikari.data-source-properties.reWriteBatchedInserts="
+})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class IdempotencyServiceTest {
+
+    @Autowired private IdempotencyRecordRepository repository;
+    @Autowired private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Object> request = Map.of("restaurantId", 1, "total", 25.5);
+
+    @AfterEach
+    void cleanUp() {
+        repository.deleteAll();
+    }
+
+    @Test
+    void failedActionLeavesNoKeyAndTheRetryRunsAgain() {
+        IdempotencyService service = service();
+        AtomicInteger runs = new AtomicInteger();
+
+        assertThatThrownBy(() -> service.execute("orders", "k-1", request, CreatedOrder.class, () -> {
+            runs.incrementAndGet();
+            throw new IllegalStateException("falhou");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThat(repository.findAll()).isEmpty();
+
+        ResponseEntity<CreatedOrder> response = service.execute("orders", "k-1", request, CreatedOrder.class, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(new CreatedOrder(7));
+        });
+
+        assertThat(runs).hasValue(2);
+        assertThat(response.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(repository.findAll()).singleElement().satisfies(record -> {
+            assertThat(record.getStatusCode()).isEqualTo(201);
+            assertThat(record.getResponseBody()).isEqualTo("{\"id\":7}");
+        });
+    }
+
+    @Test
+    void anotherInstanceReplaysTheCommittedResponse() {
+        service().execute("checkout", "k-2", request, CreatedOrder.class,
+                () -> ResponseEntity.status(HttpStatus.CREATED).body(new CreatedOrder(9)));
+
+        AtomicInteger runs = new AtomicInteger();
+        ResponseEntity<CreatedOrder> replayed = service().execute("checkout", "k-2", request, CreatedOrder.class, () -> {
+            runs.incrementAndGet();
+            return ResponseEntity.status(HttpStatus.CREATED).body(new CreatedOrder(10));
+        });
+
+        assertThat(runs).hasValue(0);
+        assertThat(replayed.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(replayed.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replayed.getBody()).isEqualTo(new CreatedOrder(9));
+        assertThat(repository.findAll()).extracting(IdempotencyRecord::getIdempotencyKey).containsExactly("k-2");
+    }
+
+    private IdempotencyService service() {
+        return new IdempotencyService(repository, objectMapper, transactionManager, 100, 24, 1000);
+    }
+
+    // A typed body, as the controllers return; the replay deserializes it back from the stored JSON
+    record CreatedOrder(long id) {}
+}
@@ -0,0 +1,52 @@
+package com.doistemposcafe.totem.tracing;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Comandos abaixo de 1 ms são a maioria; o tempo de banco da requisição tem de somá-los mesmo
+ * quando o datasource-proxy informa 0 ms para cada um.
+ */
+class SqlTraceListenerTest {
+
+    private final SqlTraceListener listener = new SqlTraceListener(200);
+
+    @AfterEach
+    void endTrace() {
+        SqlTrace.end();
+    }
+
+    @Test
+    void subMillisecondStatementsAddUp() {
+        SqlTrace trace = SqlTrace.begin(10);
+        List<QueryInfo> queries = List.of(new QueryInfo("select 1"));
+
+        for (int i = 0; i < 3; i++) {
+            ExecutionInfo execInfo = new ExecutionInfo();
+            listener.beforeQuery(execInfo, queries);
+            long start = System.nanoTime();
+            while (System.nanoTime() - start < TimeUnit.MICROSECONDS.toNanos(300)) {
+                Thread.onSpinWait();
+            }
+            execInfo.setElapsedTime(0);
+            listener.afterQuery(execInfo, queries);
+        }
+
+        assertThat(trace.statements()).isEqualTo(3);
+        assertThat(trace.dbTimeNanos()).isGreaterThanOrEqualTo(TimeUnit.MICROSECONDS.toNanos(900));
+        assertThat(trace.recorded()).allSatisfy(sql -> assertThat(sql).matches("\\[\\d+\\.\\d{3} ms] select 1"));
+    }
+
+    @Test
+    void millisKeepsTheFraction() {
+        assertThat(SqlTrace.millis(812_345)).isEqualTo("0.812");
+        assertThat(SqlTrace.millis(TimeUnit.MILLISECONDS.toNanos(1500))).isEqualTo("1500.000");
+    }
+}